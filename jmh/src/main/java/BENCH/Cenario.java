@@ -0,0 +1,129 @@
+package BENCH;
+
+import MODE.Coordenadas;
+import MODE.Grid;
+import MODE.Individual;
+import MODE.Special_Cost_Zone;
+import io.SimulationParameters;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Random;
+
+/**
+ * A reproducible simulation scenario for the benchmarks.
+ * The scenario is a square grid from {@code (1,1)} to {@code (n,n)} with randomly
+ * placed special cost zones and obstacles, generated from a fixed seed so that every
+ * run of the benchmarks measures the same workload.
+ */
+public class Cenario {
+	/**
+	 * The seed of the scenarios and of the random inputs of the benchmarks.
+	 */
+	public static final long SEED = 42;
+
+	/**
+	 * The fraction of the grid cells that hold an obstacle.
+	 */
+	private static final double FRACAO_OBSTACULOS = 0.05;
+
+	/**
+	 * The parameters of the scenario.
+	 */
+	private final SimulationParameters params;
+
+	/**
+	 * Generates a scenario.
+	 *
+	 * @param n The number of rows and columns of the grid.
+	 * @param populacao The initial population size.
+	 * @param zonas The number of special cost zones.
+	 * @param tau The total simulation time.
+	 * @param seed The seed of the generator of zones and obstacles.
+	 */
+	public Cenario(int n, int populacao, int zonas, int tau, long seed) {
+		Random rnd = new Random(seed);
+		Coordenadas inicio = new Coordenadas(1, 1);
+		Coordenadas fim = new Coordenadas(n, n);
+
+		List<Special_Cost_Zone> costZones = new ArrayList<>();
+		for (int i = 0; i < zonas; i++) {
+			int x1 = 1 + rnd.nextInt(n), x2 = 1 + rnd.nextInt(n);
+			int y1 = 1 + rnd.nextInt(n), y2 = 1 + rnd.nextInt(n);
+			costZones.add(new Special_Cost_Zone(
+					new Coordenadas(Math.min(x1, x2), Math.min(y1, y2)),
+					new Coordenadas(Math.max(x1, x2), Math.max(y1, y2)),
+					1 + rnd.nextInt(10)));
+		}
+
+		List<Coordenadas> obstacles = new ArrayList<>();
+		Set<Coordenadas> ocupadas = new HashSet<>();
+		ocupadas.add(inicio);
+		ocupadas.add(fim);
+		int nObst = (int) (n * n * FRACAO_OBSTACULOS);
+		while (obstacles.size() < nObst) {
+			Coordenadas c = new Coordenadas(1 + rnd.nextInt(n), 1 + rnd.nextInt(n));
+			if (ocupadas.add(c)) {
+				obstacles.add(c);
+			}
+		}
+
+		this.params = new SimulationParameters(n, n, inicio, fim, costZones, obstacles,
+				tau, populacao, 2 * populacao, 3, 10, 1, 1);
+	}
+
+	/**
+	 * Returns the parameters of the scenario.
+	 * @return The {@link SimulationParameters} of the scenario.
+	 */
+	public SimulationParameters getParams() {
+		return params;
+	}
+
+	/**
+	 * Builds a new grid for the scenario.
+	 * @return A new {@link Grid} with the obstacles and zones of the scenario.
+	 */
+	public Grid buildGrid() {
+		return params.buildGrid();
+	}
+
+	/**
+	 * Draws random cells of a grid that are not obstacles.
+	 *
+	 * @param grid The grid.
+	 * @param rnd The generator of the cells.
+	 * @param quantidade The number of cells to draw.
+	 * @return The cell ids of the drawn cells.
+	 */
+	public static int[] celulasLivres(Grid grid, Random rnd, int quantidade) {
+		int[] celulas = new int[quantidade];
+		for (int i = 0; i < quantidade; ) {
+			Coordenadas c = new Coordenadas(1 + rnd.nextInt(grid.getN()), 1 + rnd.nextInt(grid.getM()));
+			if (!grid.isObstacle(c)) celulas[i++] = grid.getCellId(c);
+		}
+		return celulas;
+	}
+
+	/**
+	 * Moves an individual the given number of steps, each in the next of the given
+	 * directions that is a valid move.
+	 *
+	 * @param ind The individual to move.
+	 * @param grid The grid the individual moves on.
+	 * @param direcoes The preferred direction of each step.
+	 * @param passos The number of steps.
+	 */
+	public static void caminhar(Individual ind, Grid grid, int[] direcoes, int passos) {
+		for (int i = 0; i < passos; i++) {
+			int cell = ind.getLastCell();
+			int mask = grid.getValidMoveMask(cell);
+			if (mask == 0) return;
+			int d = direcoes[i % direcoes.length];
+			while ((mask & (1 << d)) == 0) d = (d + 1) & 3;
+			ind.moveTo(grid.getNeighbour(cell, d));
+		}
+	}
+}
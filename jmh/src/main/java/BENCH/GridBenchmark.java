@@ -0,0 +1,126 @@
+package BENCH;
+
+import MODE.Coordenadas;
+import MODE.Grid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the move and edge cost queries of the {@link Grid}, on random free cells
+ * of a {@link Cenario}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GridBenchmark {
+	/**
+	 * The number of precomputed queries; a power of two.
+	 */
+	private static final int CONSULTAS = 1 << 14;
+
+	/**
+	 * The number of rows and columns of the grid.
+	 */
+	@Param({"100", "1000"})
+	public int n;
+	/**
+	 * The number of special cost zones.
+	 */
+	@Param({"10", "100"})
+	public int zonas;
+
+	/**
+	 * The grid.
+	 */
+	private Grid grid;
+	/**
+	 * Random free cells.
+	 */
+	private int[] celulas;
+	/**
+	 * The coordinates of {@link #celulas}.
+	 */
+	private Coordenadas[] de;
+	/**
+	 * The coordinates of a random neighbour of each of {@link #celulas}.
+	 */
+	private Coordenadas[] para;
+	/**
+	 * The index of the next query.
+	 */
+	private int i;
+
+	/**
+	 * Constructs the benchmark state.
+	 */
+	public GridBenchmark() {
+		// Default constructor
+	}
+
+	/**
+	 * Builds the grid and draws the queries, so the benchmarks measure only the queries.
+	 */
+	@Setup
+	public void preparar() {
+		grid = new Cenario(n, 1, zonas, 1, Cenario.SEED).buildGrid();
+		Random rnd = new Random(Cenario.SEED);
+		celulas = Cenario.celulasLivres(grid, rnd, CONSULTAS);
+		de = new Coordenadas[CONSULTAS];
+		para = new Coordenadas[CONSULTAS];
+		for (int k = 0; k < CONSULTAS; k++) {
+			int mask = grid.getValidMoveMask(celulas[k]);
+			int vizinho = mask == 0 ? celulas[k]
+					: grid.getNeighbour(celulas[k], Grid.nthDirection(mask, rnd.nextInt(Integer.bitCount(mask))));
+			de[k] = grid.toCoordenadas(celulas[k]);
+			para[k] = grid.toCoordenadas(vizinho);
+		}
+	}
+
+	/**
+	 * Lists the valid moves from a cell.
+	 *
+	 * @return The valid moves.
+	 */
+	@Benchmark
+	public List<Coordenadas> getValidMoves() {
+		return grid.getValidMoves(de[i++ & (CONSULTAS - 1)]);
+	}
+
+	/**
+	 * Computes the mask of the valid moves from a cell.
+	 *
+	 * @return The mask.
+	 */
+	@Benchmark
+	public int getValidMoveMask() {
+		return grid.getValidMoveMask(celulas[i++ & (CONSULTAS - 1)]);
+	}
+
+	/**
+	 * Looks up the cost of an edge.
+	 *
+	 * @return The cost.
+	 */
+	@Benchmark
+	public int custoCaminho() {
+		int k = i++ & (CONSULTAS - 1);
+		return grid.custoCaminho(de[k], para[k]);
+	}
+}
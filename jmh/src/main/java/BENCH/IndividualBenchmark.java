@@ -0,0 +1,187 @@
+package BENCH;
+
+import MODE.ComfortEngine;
+import MODE.Coordenadas;
+import MODE.Grid;
+import MODE.Individual;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the path operations of an {@link Individual}: a move, the comfort and
+ * a reproduction, on a population of individuals with paths of a realistic length.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IndividualBenchmark {
+	/**
+	 * The number of precomputed directions; a power of two.
+	 */
+	private static final int DIRECOES = 1 << 14;
+
+	/**
+	 * The number of rows and columns of the grid.
+	 */
+	@Param({"100", "1000"})
+	public int n;
+	/**
+	 * The number of individuals.
+	 */
+	@Param({"100", "1000"})
+	public int populacao;
+	/**
+	 * The number of special cost zones.
+	 */
+	@Param({"10", "100"})
+	public int zonas;
+
+	/**
+	 * The grid.
+	 */
+	private Grid grid;
+	/**
+	 * The start point.
+	 */
+	private Coordenadas inicio;
+	/**
+	 * The final point.
+	 */
+	private Coordenadas destino;
+	/**
+	 * The comfort sensitivity.
+	 */
+	private int k;
+	/**
+	 * The comfort tables of the scenario.
+	 */
+	private ComfortEngine motor;
+	/**
+	 * The preferred direction of each move.
+	 */
+	private int[] direcoes;
+	/**
+	 * The individuals, each with a path of up to {@code 4 n} moves.
+	 */
+	private Individual[] andantes;
+	/**
+	 * The individual of the move benchmark.
+	 */
+	private Individual andante;
+	/**
+	 * The index of the next individual or direction.
+	 */
+	private int i;
+
+	/**
+	 * Constructs the benchmark state.
+	 */
+	public IndividualBenchmark() {
+		// Default constructor
+	}
+
+	/**
+	 * Builds the grid and walks the individuals.
+	 */
+	@Setup
+	public void preparar() {
+		Cenario cenario = new Cenario(n, populacao, zonas, 1, Cenario.SEED);
+		grid = cenario.buildGrid();
+		destino = cenario.getParams().getEndPoint();
+		k = cenario.getParams().getK();
+		motor = new ComfortEngine(grid, destino, k);
+		Random rnd = new Random(Cenario.SEED);
+		direcoes = new int[DIRECOES];
+		for (int d = 0; d < DIRECOES; d++) direcoes[d] = rnd.nextInt(4);
+		inicio = cenario.getParams().getStartPoint();
+		andantes = new Individual[populacao];
+		for (int a = 0; a < populacao; a++) {
+			andantes[a] = new Individual(inicio, 0, 0, grid);
+			Cenario.caminhar(andantes[a], grid, direcoes, 1 + rnd.nextInt(4 * n));
+		}
+	}
+
+	/**
+	 * Starts the individual of the move benchmark from the start point, so every
+	 * iteration moves it along the same walk.
+	 */
+	@Setup(Level.Iteration)
+	public void reiniciar() {
+		andante = new Individual(inicio, 0, 0, grid);
+		i = 0;
+	}
+
+	/**
+	 * Moves an individual one step, removing the cycle it closes, if any.
+	 *
+	 * @return The length of its path.
+	 */
+	@Benchmark
+	public int moveTo() {
+		int cell = andante.getLastCell();
+		int mask = grid.getValidMoveMask(cell);
+		if (mask == 0) return andante.getLength();
+		int d = direcoes[i++ & (DIRECOES - 1)];
+		while ((mask & (1 << d)) == 0) d = (d + 1) & 3;
+		andante.moveTo(grid.getNeighbour(cell, d));
+		return andante.getLength();
+	}
+
+	/**
+	 * Computes the comfort of an individual from the grid.
+	 *
+	 * @return The comfort.
+	 */
+	@Benchmark
+	public double getComfort() {
+		return andantes[proximo()].getComfort(grid, destino, k);
+	}
+
+	/**
+	 * Computes the comfort of an individual from the precomputed tables.
+	 *
+	 * @return The comfort.
+	 */
+	@Benchmark
+	public double comfortEngine() {
+		return andantes[proximo()].getComfort(motor);
+	}
+
+	/**
+	 * Creates the child of an individual.
+	 *
+	 * @return The child.
+	 */
+	@Benchmark
+	public Individual reproduz() {
+		return andantes[proximo()].reproduz(k, grid, destino);
+	}
+
+	/**
+	 * Returns the index of the next individual.
+	 *
+	 * @return The index.
+	 */
+	private int proximo() {
+		int a = i++;
+		if (i == populacao) i = 0;
+		return a;
+	}
+}
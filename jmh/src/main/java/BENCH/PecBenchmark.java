@@ -0,0 +1,97 @@
+package BENCH;
+
+import CORE.CalendarEventQueue;
+import CORE.Event;
+import CORE.HeapEventQueue;
+import CORE.PEC;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the pending event container, {@link PEC#addEvent(Event)} and
+ * {@link PEC#getNextEvent()}, in the steady state of a simulation: with one event per
+ * individual pending, each operation removes the next event and schedules a new one a
+ * random delay after it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PecBenchmark {
+	/**
+	 * The number of precomputed delays; a power of two.
+	 */
+	private static final int ATRASOS = 1 << 16;
+
+	/**
+	 * The queue backing the calendar: {@code heap} or {@code calendar}.
+	 */
+	@Param({"heap", "calendar"})
+	public String fila;
+	/**
+	 * The number of pending events, one per individual.
+	 */
+	@Param({"100", "10000"})
+	public int populacao;
+
+	/**
+	 * The delays of the scheduled events, exponential with mean 10, as the simulation's.
+	 */
+	private int[] atrasos;
+	/**
+	 * The calendar.
+	 */
+	private PEC pec;
+	/**
+	 * The index of the next delay.
+	 */
+	private int i;
+
+	/**
+	 * Constructs the benchmark state.
+	 */
+	public PecBenchmark() {
+		// Default constructor
+	}
+
+	/**
+	 * Draws the delays and fills a new calendar with one event per individual.
+	 */
+	@Setup(Level.Iteration)
+	public void preparar() {
+		Random rnd = new Random(Cenario.SEED);
+		atrasos = new int[ATRASOS];
+		for (int k = 0; k < ATRASOS; k++) atrasos[k] = 1 + (int) (-Math.log(1 - rnd.nextDouble()) * 10);
+		pec = new PEC("heap".equals(fila) ? new HeapEventQueue() : new CalendarEventQueue());
+		for (int k = 0; k < populacao; k++) pec.addEvent(new Event(atrasos[k], null, null));
+		i = 0;
+	}
+
+	/**
+	 * Removes the next event and schedules its successor.
+	 *
+	 * @return The time of the removed event.
+	 */
+	@Benchmark
+	public int proximoEvento() {
+		Event e = pec.getNextEvent();
+		pec.addEvent(new Event(e.getTime() + atrasos[i++ & (ATRASOS - 1)], null, null));
+		return e.getTime();
+	}
+}
@@ -0,0 +1,132 @@
+package BENCH;
+
+import CORE.CalendarEventQueue;
+import CORE.PEC;
+import CORE.Simulation;
+import MODE.Grid;
+import UTIL.RandomUtil;
+import io.ObservationSink;
+import io.TextObservationSink;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a full {@link Simulation#run()} of a {@link Cenario}, with the same seed
+ * on every invocation, so every invocation executes the same events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SimulationBenchmark {
+	/**
+	 * The number of rows and columns of the grid.
+	 */
+	@Param({"100", "1000"})
+	public int n;
+	/**
+	 * The initial population size.
+	 */
+	@Param({"100", "1000"})
+	public int populacao;
+	/**
+	 * The number of special cost zones.
+	 */
+	@Param({"10", "100"})
+	public int zonas;
+	/**
+	 * The total simulation time.
+	 */
+	@Param({"200"})
+	public int tau;
+
+	/**
+	 * The scenario.
+	 */
+	private Cenario cenario;
+	/**
+	 * The grid of the scenario, shared by every run.
+	 */
+	private Grid grid;
+
+	/**
+	 * Constructs the benchmark state.
+	 */
+	public SimulationBenchmark() {
+		// Default constructor
+	}
+
+	/**
+	 * Builds the scenario and its grid.
+	 */
+	@Setup
+	public void preparar() {
+		cenario = new Cenario(n, populacao, zonas, tau, Cenario.SEED);
+		grid = cenario.buildGrid();
+	}
+
+	/**
+	 * Runs the simulation, discarding its observations, so only the simulation itself is timed.
+	 *
+	 * @return The number of events executed.
+	 */
+	@Benchmark
+	public int run() {
+		Simulation sim = criar();
+		sim.setObservationSink(ObservationSink.discard());
+		sim.run();
+		return sim.getRealizedEvents();
+	}
+
+	/**
+	 * Runs the simulation, also formatting the text report (written nowhere).
+	 *
+	 * @return The number of events executed.
+	 */
+	@Benchmark
+	public int runText() {
+		Simulation sim = criar();
+		sim.setObservationSink(new TextObservationSink(OutputStream.nullOutputStream()));
+		sim.run();
+		return sim.getRealizedEvents();
+	}
+
+	/**
+	 * Runs the simulation a time slice at a time, with the moves of each slice on every
+	 * available processor.
+	 *
+	 * @return The number of events executed.
+	 */
+	@Benchmark
+	public int runParallel() {
+		Simulation sim = criar();
+		sim.setObservationSink(ObservationSink.discard());
+		sim.setParallelism(Runtime.getRuntime().availableProcessors());
+		sim.run();
+		return sim.getRealizedEvents();
+	}
+
+	/**
+	 * Sets up a new simulation of the scenario.
+	 *
+	 * @return The simulation.
+	 */
+	private Simulation criar() {
+		return Simulation.setup(cenario.getParams(), grid, new PEC(new CalendarEventQueue()), new RandomUtil(Cenario.SEED));
+	}
+}
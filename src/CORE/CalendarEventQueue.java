@@ -0,0 +1,198 @@
+package CORE;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An {@link EventQueue} specialised for the integer event times of the simulation.
+ * <p>
+ * The events of the near future are kept in a calendar: a ring of buckets, one per time
+ * unit, covering the window {@code [inicio, inicio + largura)}, where {@code inicio} is the
+ * time of the earliest event. Each bucket is a FIFO list linked through the events
+ * themselves, so inserting into the window and removing from it take constant time and
+ * allocate nothing. Events beyond the window wait in an overflow heap and move into the
+ * calendar once the window reaches them. Removing an event only has to skip the empty
+ * buckets between consecutive event times, which is cheap when events are dense in time.
+ * <p>
+ * Events leave the queue in the same order as in {@link HeapEventQueue}: by time, and by
+ * sequence number within the same time.
+ */
+public class CalendarEventQueue implements EventQueue {
+	/**
+	 * The default number of time units covered by the calendar.
+	 */
+	public static final int LARGURA_PADRAO = 4096;
+
+	/**
+	 * The first event of each bucket, or {@code null} if the bucket is empty.
+	 * The bucket of time {@code t} is at index {@code t & mascara}.
+	 */
+	private Event[] primeiro;
+	/**
+	 * The last event of each bucket, or {@code null} if the bucket is empty.
+	 */
+	private Event[] ultimo;
+	/**
+	 * The number of buckets minus one; the number of buckets is a power of two.
+	 */
+	private int mascara;
+	/**
+	 * The time of the first bucket of the window. Every event in the calendar has a time in
+	 * {@code [inicio, inicio + primeiro.length)}, and every event in {@link #futuro} lies beyond it.
+	 */
+	private int inicio;
+	/**
+	 * The number of events held in the calendar buckets.
+	 */
+	private int noCalendario;
+	/**
+	 * The events scheduled beyond the calendar window.
+	 */
+	private PriorityQueue<Event> futuro;
+
+	/**
+	 * Constructs an empty calendar queue with the default window width.
+	 */
+	public CalendarEventQueue() {
+		this(LARGURA_PADRAO);
+	}
+
+	/**
+	 * Constructs an empty calendar queue whose window covers at least the given number of
+	 * time units. A window as long as the typical delay between scheduling an event and
+	 * executing it keeps most events out of the overflow heap.
+	 *
+	 * @param largura The minimum width of the window, rounded up to a power of two.
+	 */
+	public CalendarEventQueue(int largura) {
+		int buckets = Integer.highestOneBit(Math.max(2, largura) - 1) << 1;
+		this.primeiro = new Event[buckets];
+		this.ultimo = new Event[buckets];
+		this.mascara = buckets - 1;
+		this.futuro = new PriorityQueue<>();
+	}
+
+	@Override
+	public void add(Event aEvent) {
+		int t = aEvent.getTime();
+		if (t < inicio) {
+			recuar(t);
+		}
+		if (t - inicio <= mascara) {
+			acrescentar(aEvent);
+		} else {
+			futuro.add(aEvent);
+		}
+	}
+
+	@Override
+	public Event poll() {
+		if (!posicionar()) return null;
+		int b = inicio & mascara;
+		Event e = primeiro[b];
+		primeiro[b] = e.proximo;
+		if (primeiro[b] == null) ultimo[b] = null;
+		e.proximo = null;
+		noCalendario--;
+		return e;
+	}
+
+	@Override
+	public Event peek() {
+		return posicionar() ? primeiro[inicio & mascara] : null;
+	}
+
+	/**
+	 * Removes the whole bucket of the given time at once, since a bucket of the window holds
+	 * exactly the events of one time, already in order.
+	 */
+	@Override
+	public void pollAll(int time, List<Event> destino) {
+		if (!posicionar() || inicio != time) return;
+		int b = inicio & mascara;
+		for (Event e = primeiro[b]; e != null; ) {
+			Event seguinte = e.proximo;
+			e.proximo = null;
+			destino.add(e);
+			noCalendario--;
+			e = seguinte;
+		}
+		primeiro[b] = null;
+		ultimo[b] = null;
+	}
+
+	@Override
+	public int size() {
+		return noCalendario + futuro.size();
+	}
+
+	/**
+	 * Appends an event whose time lies in the window to the end of its bucket.
+	 *
+	 * @param e The {@link Event} to append.
+	 */
+	private void acrescentar(Event e) {
+		int b = e.getTime() & mascara;
+		if (ultimo[b] == null) {
+			primeiro[b] = e;
+		} else {
+			ultimo[b].proximo = e;
+		}
+		ultimo[b] = e;
+		noCalendario++;
+	}
+
+	/**
+	 * Advances the window until its first bucket holds the earliest event.
+	 *
+	 * @return {@code true} if the queue holds an event, {@code false} if it is empty.
+	 */
+	private boolean posicionar() {
+		if (noCalendario == 0) {
+			if (futuro.isEmpty()) return false;
+			// Nothing in the window: jump straight to the earliest overflow event
+			inicio = futuro.peek().getTime();
+			migrar();
+		}
+		while (primeiro[inicio & mascara] == null) {
+			inicio++;
+			migrar();
+		}
+		return true;
+	}
+
+	/**
+	 * Moves the overflow events that the window now covers into the calendar.
+	 * They leave the heap in order, and they precede in their buckets any event added
+	 * later, so every bucket stays sorted by sequence number.
+	 */
+	private void migrar() {
+		while (!futuro.isEmpty() && futuro.peek().getTime() - inicio <= mascara) {
+			acrescentar(futuro.poll());
+		}
+	}
+
+	/**
+	 * Moves the window back so that it starts at time {@code t}, for an event scheduled
+	 * before the earliest pending one. Events that fall beyond the moved window go back
+	 * to the overflow heap.
+	 *
+	 * @param t The new start of the window.
+	 */
+	private void recuar(int t) {
+		long corte = Math.max((long) t + mascara + 1, inicio);
+		for (long u = corte; u <= (long) inicio + mascara && noCalendario > 0; u++) {
+			int b = (int) u & mascara;
+			for (Event e = primeiro[b]; e != null; ) {
+				Event seguinte = e.proximo;
+				e.proximo = null;
+				futuro.add(e);
+				noCalendario--;
+				e = seguinte;
+			}
+			primeiro[b] = null;
+			ultimo[b] = null;
+		}
+		inicio = t;
+	}
+}
@@ -0,0 +1,388 @@
+package CORE;
+
+import MODE.Coordenadas;
+import MODE.Grid;
+import MODE.Individual;
+import MODE.PathNode;
+import MODE.Special_Cost_Zone;
+import UTIL.RandomUtil;
+import io.SimulationParameters;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves the complete state of a running {@link Simulation} to a binary checkpoint file,
+ * and restores a simulation from one, so that a long run can continue after its process
+ * is stopped. A restored simulation follows exactly the trajectory the saved run would
+ * have followed, and writes the rest of its output.
+ * <p>
+ * A checkpoint holds the simulation parameters, from which the grid is rebuilt; the
+ * progress of the run loop; the state of the random number generator; the population in
+ * slot order, with each individual's identifier, birth and death times and path; the
+ * lineage, if it is tracked; and the pending events in the order they execute, with their
+ * sequence numbers. Cancelled events are left out.
+ * <p>
+ * The file is written as a stream, without building it in memory, to a temporary file
+ * that then replaces the previous checkpoint, so a run stopped while writing keeps its last
+ * complete checkpoint. Paths are written as a tree of {@link PathNode vertices}: a vertex
+ * shared by several individuals' paths is written once, and every other vertex is written
+ * as a reference to its previous vertex and the 2-bit direction of the step from it, which
+ * mostly takes one byte. Non-negative integers are written as variable-length integers.
+ */
+public final class Checkpoint {
+	/**
+	 * The magic number at the start of a checkpoint file, {@code CKP1}.
+	 */
+	private static final int MAGIC = 0x434B5031;
+
+	/**
+	 * Not instantiable.
+	 */
+	private Checkpoint() {
+	}
+
+	/**
+	 * Writes the state of a simulation, stopped between two events, to a checkpoint file.
+	 * An existing file is replaced only once the new checkpoint is complete.
+	 *
+	 * @param sim The {@link Simulation}.
+	 * @param ficheiro The checkpoint file.
+	 * @throws UncheckedIOException If the file cannot be written.
+	 */
+	public static void write(Simulation sim, Path ficheiro) {
+		Path temporario = ficheiro.resolveSibling(ficheiro.getFileName() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(temporario), 1 << 16))) {
+				escrever(sim, out);
+			}
+			Files.move(temporario, ficheiro, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Restores a simulation from a checkpoint file. Its {@link Simulation#run()} continues the
+	 * saved run; the output sink and any further checkpoints must be set again.
+	 *
+	 * @param ficheiro The checkpoint file.
+	 * @param fila An empty {@link EventQueue} for the restored calendar. The trajectory does
+	 * not depend on the kind of queue, which may differ from the saved run's.
+	 * @return The restored {@link Simulation}.
+	 * @throws IOException If the file cannot be read or is not a valid checkpoint.
+	 */
+	public static Simulation read(Path ficheiro, EventQueue fila) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(ficheiro), 1 << 16))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("O ficheiro " + ficheiro + " não é um checkpoint válido");
+			}
+			return ler(in, fila);
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new IOException("O checkpoint " + ficheiro + " está corrompido", e);
+		}
+	}
+
+	/**
+	 * Writes the state of a simulation.
+	 *
+	 * @param sim The {@link Simulation}.
+	 * @param out The destination.
+	 * @throws IOException If the destination cannot be written.
+	 */
+	private static void escrever(Simulation sim, DataOutputStream out) throws IOException {
+		Simulation_Context context = sim.getContext();
+		PopulationManager pm = context.getPopulation();
+		Grid grid = context.getGrid();
+		out.writeInt(MAGIC);
+		escreverParametros(context.getParameters(), out);
+
+		// The progress of the run loop and the generator
+		varint(out, context.getTempoAtual());
+		varint(out, sim.getRealizedEvents());
+		varint(out, sim.getNextObservation());
+		varint(out, sim.getNextObservationTime());
+		for (long v : context.getRandom().getState()) {
+			out.writeLong(v);
+		}
+
+		// The population in slot order, each individual preceded by the vertices of its path not written yet
+		List<Individual> individuos = pm.getView();
+		varint(out, pm.getNextId());
+		varint(out, individuos.size());
+		Map<PathNode, Integer> escritos = new IdentityHashMap<>();
+		ArrayDeque<PathNode> novos = new ArrayDeque<>();
+		for (Individual ind : individuos) {
+			for (PathNode node = ind.getPathEnd(); node != null && !escritos.containsKey(node); node = node.getAnterior()) {
+				novos.push(node);
+			}
+			varint(out, novos.size());
+			while (!novos.isEmpty()) {
+				PathNode node = novos.pop();
+				int indice = escritos.size();
+				PathNode anterior = node.getAnterior();
+				if (anterior == null) {
+					varint(out, 0);
+					varint(out, node.getCell());
+				} else {
+					long recuo = indice - escritos.get(anterior);
+					varint(out, recuo << 2 | grid.getDirection(anterior.getCell(), node.getCell()));
+				}
+				escritos.put(node, indice);
+			}
+			varint(out, escritos.get(ind.getPathEnd()));
+			varint(out, ind.getId());
+			varint(out, ind.getBirthTime());
+			varint(out, ind.getDeathTime());
+		}
+
+		Lineage linhagem = pm.getLineage();
+		out.writeBoolean(linhagem != null);
+		if (linhagem != null) {
+			varint(out, linhagem.size());
+			for (int id = 0; id < linhagem.size(); id++) {
+				varint(out, linhagem.getParent(id) + 1);
+			}
+		}
+
+		// The pending events in the order they execute
+		PEC pec = context.getPEC();
+		List<Event> eventos = pec.pendentes();
+		varint(out, pec.getNextSeq());
+		varint(out, eventos.size());
+		for (Event e : eventos) {
+			int slot = e.getIndividual().getSlot();
+			if (slot < 0) {
+				throw new IllegalStateException("Evento pendente de um indivíduo fora da população: " + e);
+			}
+			out.writeByte(EventFactory.tipo(e));
+			varint(out, e.getTime());
+			varint(out, slot);
+			varint(out, e.getSeq());
+		}
+	}
+
+	/**
+	 * Reads the state of a simulation written by {@link #escrever(Simulation, DataOutputStream)},
+	 * after the magic number.
+	 *
+	 * @param in The source.
+	 * @param fila An empty {@link EventQueue} for the calendar.
+	 * @return The restored {@link Simulation}.
+	 * @throws IOException If the source cannot be read.
+	 */
+	private static Simulation ler(DataInputStream in, EventQueue fila) throws IOException {
+		SimulationParameters params = lerParametros(in);
+		Grid grid = params.buildGrid();
+
+		int tempoAtual = lerInt(in);
+		int realizados = lerInt(in);
+		int numObservacao = lerInt(in);
+		int proximaObservacao = lerInt(in);
+		RandomUtil random = RandomUtil.fromState(new long[] {in.readLong(), in.readLong()});
+
+		PEC pec = new PEC(fila);
+		PopulationManager pm = new PopulationManager(null);
+		Simulation_Context context = new Simulation_Context(grid, pec, pm, params, random);
+		pm.setContext(context);
+		context.setTempoAtual(tempoAtual);
+
+		int proximoId = lerInt(in);
+		int total = lerInt(in);
+		List<PathNode> nos = new ArrayList<>();
+		List<Individual> individuos = new ArrayList<>(total);
+		for (int i = 0; i < total; i++) {
+			for (int novos = lerInt(in); novos > 0; novos--) {
+				long v = lerLong(in);
+				if (v == 0) {
+					nos.add(new PathNode(lerInt(in)));
+				} else {
+					PathNode anterior = nos.get(nos.size() - (int) (v >>> 2));
+					int cell = grid.getNeighbour(anterior.getCell(), (int) (v & 3));
+					nos.add(new PathNode(anterior, cell, grid.custoAresta(anterior.getCell(), cell)));
+				}
+			}
+			PathNode fim = nos.get(lerInt(in));
+			int id = lerInt(in);
+			int nascimento = lerInt(in);
+			int morte = lerInt(in);
+			Individual ind = new Individual(fim, nascimento, morte, grid);
+			pm.restore(ind, id);
+			individuos.add(ind);
+		}
+		pm.setNextId(proximoId);
+
+		if (in.readBoolean()) {
+			Lineage linhagem = new Lineage();
+			int tamanho = lerInt(in);
+			for (int id = 0; id < tamanho; id++) {
+				linhagem.record(id, lerInt(in) - 1);
+			}
+			pm.setLineage(linhagem);
+		}
+
+		long proximoSeq = lerLong(in);
+		EventFactory factory = context.getEventFactory();
+		for (int n = lerInt(in); n > 0; n--) {
+			int tipo = in.readByte();
+			int tempo = lerInt(in);
+			Individual ind = individuos.get(lerInt(in));
+			Event e = factory.create(tipo, ind, tempo);
+			e.setSeq(lerLong(in));
+			pec.restore(e);
+		}
+		pec.restore(proximoSeq);
+
+		Simulation sim = new Simulation(context);
+		sim.restore(realizados, numObservacao, proximaObservacao);
+		return sim;
+	}
+
+	/**
+	 * Writes the simulation parameters.
+	 *
+	 * @param p The {@link SimulationParameters}.
+	 * @param out The destination.
+	 * @throws IOException If the destination cannot be written.
+	 */
+	private static void escreverParametros(SimulationParameters p, DataOutputStream out) throws IOException {
+		out.writeInt(p.getN());
+		out.writeInt(p.getM());
+		coordenadas(out, p.getStartPoint());
+		coordenadas(out, p.getEndPoint());
+		out.writeInt(p.getTau());
+		out.writeInt(p.getNu());
+		out.writeInt(p.getNuMax());
+		out.writeInt(p.getK());
+		out.writeDouble(p.getMu());
+		out.writeDouble(p.getDelta());
+		out.writeDouble(p.getRho());
+		out.writeInt(p.getSpecialCostZones().size());
+		for (Special_Cost_Zone zone : p.getSpecialCostZones()) {
+			coordenadas(out, zone.getInf());
+			coordenadas(out, zone.getSup());
+			out.writeInt(zone.getCusto());
+		}
+		out.writeInt(p.getObstacles().size());
+		for (Coordenadas c : p.getObstacles()) {
+			coordenadas(out, c);
+		}
+	}
+
+	/**
+	 * Reads the simulation parameters written by {@link #escreverParametros(SimulationParameters, DataOutputStream)}.
+	 *
+	 * @param in The source.
+	 * @return The {@link SimulationParameters}.
+	 * @throws IOException If the source cannot be read.
+	 */
+	private static SimulationParameters lerParametros(DataInputStream in) throws IOException {
+		int n = in.readInt();
+		int m = in.readInt();
+		Coordenadas inicio = coordenadas(in);
+		Coordenadas fim = coordenadas(in);
+		int tau = in.readInt();
+		int nu = in.readInt();
+		int nuMax = in.readInt();
+		int k = in.readInt();
+		double mu = in.readDouble();
+		double delta = in.readDouble();
+		double rho = in.readDouble();
+		List<Special_Cost_Zone> zonas = new ArrayList<>();
+		for (int i = in.readInt(); i > 0; i--) {
+			Coordenadas inf = coordenadas(in);
+			Coordenadas sup = coordenadas(in);
+			zonas.add(new Special_Cost_Zone(inf, sup, in.readInt()));
+		}
+		List<Coordenadas> obstaculos = new ArrayList<>();
+		for (int i = in.readInt(); i > 0; i--) {
+			obstaculos.add(coordenadas(in));
+		}
+		return new SimulationParameters(n, m, inicio, fim, zonas, obstaculos, tau, nu, nuMax, k, mu, delta, rho);
+	}
+
+	/**
+	 * Writes a pair of coordinates.
+	 *
+	 * @param out The destination.
+	 * @param c The {@link Coordenadas}.
+	 * @throws IOException If the destination cannot be written.
+	 */
+	private static void coordenadas(DataOutputStream out, Coordenadas c) throws IOException {
+		out.writeInt(c.getX());
+		out.writeInt(c.getY());
+	}
+
+	/**
+	 * Reads a pair of coordinates.
+	 *
+	 * @param in The source.
+	 * @return The {@link Coordenadas}.
+	 * @throws IOException If the source cannot be read.
+	 */
+	private static Coordenadas coordenadas(DataInputStream in) throws IOException {
+		int x = in.readInt();
+		return new Coordenadas(x, in.readInt());
+	}
+
+	/**
+	 * Writes a non-negative integer in 7-bit groups, lowest first, the high bit of each byte
+	 * marking that another follows.
+	 *
+	 * @param out The destination.
+	 * @param v The value; must not be negative.
+	 * @throws IOException If the destination cannot be written.
+	 */
+	private static void varint(DataOutputStream out, long v) throws IOException {
+		if (v < 0) throw new IllegalArgumentException("Valor negativo num checkpoint: " + v);
+		while (v >= 0x80) {
+			out.writeByte((int) (v & 0x7f) | 0x80);
+			v >>>= 7;
+		}
+		out.writeByte((int) v);
+	}
+
+	/**
+	 * Reads a non-negative integer written by {@link #varint(DataOutputStream, long)}.
+	 *
+	 * @param in The source.
+	 * @return The value.
+	 * @throws IOException If the source cannot be read or the value is too long.
+	 */
+	private static long lerLong(DataInputStream in) throws IOException {
+		long v = 0;
+		for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+			int b = in.readUnsignedByte();
+			v |= (long) (b & 0x7f) << deslocamento;
+			if ((b & 0x80) == 0) return v;
+		}
+		throw new IOException("Inteiro demasiado longo no checkpoint");
+	}
+
+	/**
+	 * Reads a non-negative {@code int} written by {@link #varint(DataOutputStream, long)}.
+	 *
+	 * @param in The source.
+	 * @return The value.
+	 * @throws IOException If the source cannot be read or the value does not fit an {@code int}.
+	 */
+	private static int lerInt(DataInputStream in) throws IOException {
+		long v = lerLong(in);
+		if (v > Integer.MAX_VALUE) throw new IOException("Inteiro fora dos limites no checkpoint");
+		return (int) v;
+	}
+}
@@ -25,17 +25,57 @@ public class Event implements Comparable<Event> {
      * This encapsulates the specific behavior of the event.
      */
 	private Event_Strategy strategy;
+    /**
+     * The individual's event stamp when this event was created
+     * (see {@link Individual#getEventEpoch()}).
+     */
+	private int epoch;
+    /**
+     * The sequence number given to this event when it was added to the {@link PEC}.
+     * It orders events scheduled for the same time by insertion, which makes the
+     * order of execution fully deterministic.
+     */
+	private long seq;
+    /**
+     * The next event in the same bucket of a {@link CalendarEventQueue}, which links its
+     * buckets through the events themselves; {@code null} outside such a queue.
+     */
+	Event proximo;
     /**
      * Constructs a new Event with the specified time, individual, and event strategy.
+     * The event is bound to the individual's current event stamp, so it is cancelled
+     * by a later {@link Individual#cancelPendingEvents()}.
      *
      * @param time The scheduled time for this event to occur.
      * @param individual The individual associated with this event (can be {@code null}).
      * @param strategy The {@link Event_Strategy} defining the action for this event.
      */
 	public Event(int time, Individual individual, Event_Strategy strategy) {
+		reiniciar(time, individual, strategy);
+	}
+    /**
+     * Reconfigures this event as a new event, for reuse by an {@link EventFactory}.
+     *
+     * @param time The scheduled time for this event to occur.
+     * @param individual The individual associated with this event (can be {@code null}).
+     * @param strategy The {@link Event_Strategy} defining the action for this event.
+     */
+	void reiniciar(int time, Individual individual, Event_Strategy strategy) {
 		this.time = time;
 		this.individual = individual;
 		this.strategy = strategy;
+		this.epoch = individual != null ? individual.getEventEpoch() : 0;
+		this.seq = 0;
+		this.proximo = null;
+	}
+    /**
+     * Clears the references held by an executed event while it waits for reuse in an
+     * {@link EventFactory}, so that it does not keep its individual alive.
+     */
+	void reciclar() {
+		this.individual = null;
+		this.strategy = null;
+		this.proximo = null;
 	}
     /**
      * Returns the scheduled time of this event.
@@ -44,6 +84,20 @@ public class Event implements Comparable<Event> {
 	public int getTime() {
 		return time;
 	}
+    /**
+     * Returns the sequence number given to this event by the {@link PEC}.
+     * @return The sequence number of the event.
+     */
+	public long getSeq() {
+		return seq;
+	}
+    /**
+     * Sets the sequence number of this event. Called by the {@link PEC} when the event is added.
+     * @param seq The sequence number.
+     */
+	void setSeq(long seq) {
+		this.seq = seq;
+	}
     /**
      * Returns the individual associated with this event.
      * @return The {@link Individual} associated with the event, or {@code null} if none.
@@ -51,6 +105,21 @@ public class Event implements Comparable<Event> {
 	public Individual getIndividual() {
 		return individual;
 	}
+    /**
+     * Returns the strategy this event executes.
+     * @return The {@link Event_Strategy} of the event.
+     */
+	Event_Strategy getStrategy() {
+		return strategy;
+	}
+    /**
+     * Checks whether this event was cancelled after it was scheduled, because its
+     * individual's pending events were cancelled.
+     * @return {@code true} if the event must not be executed.
+     */
+	public boolean isCancelled() {
+		return individual != null && epoch != individual.getEventEpoch();
+	}
     /**
      * Executes the action defined by this event's strategy.
      * This method delegates the actual behavior to the {@link Event_Strategy}
@@ -63,17 +132,18 @@ public class Event implements Comparable<Event> {
 	}
     /**
      * Compares this event with the specified event for order.
-     * Events are ordered primarily by their time. If times are equal,
-     * a secondary comparison criteria (e.g., individual hash code or strategy hash code)
-     * could be added for a stable sort, though for simplicity, only time is used here.
+     * Events are ordered primarily by their time. If times are equal, they are
+     * ordered by their sequence number, so events scheduled for the same time run
+     * in the order they were added to the {@link PEC}.
      *
      * @param other The event to be compared.
-     * @return A negative integer, zero, or a positive integer as this event's time
-     * is less than, equal to, or greater than the specified event's time.
+     * @return A negative integer, zero, or a positive integer as this event is to
+     * be executed before, together with, or after the specified event.
      */
 	@Override
 	public int compareTo(Event other) {
-		return Integer.compare(this.time, other.time);
+		int c = Integer.compare(this.time, other.time);
+		return c != 0 ? c : Long.compare(this.seq, other.seq);
 	}
 
 	@Override
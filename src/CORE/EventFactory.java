@@ -2,20 +2,46 @@ package CORE;
 
 import MODE.Individual; // Assuming MODE.Individual is the correct path for the Individual class
 
+import java.util.ArrayDeque;
+
 /**
  * A factory class for creating different types of {@link Event} objects.
  * This class follows the Factory Method design pattern, providing a centralized
  * way to instantiate various event types with their corresponding {@link Event_Strategy}.
  * It helps in decoupling the client code from the concrete implementations of event strategies.
+ * <p>
+ * The strategies are stateless, so every event of a type shares a single strategy instance.
+ * A factory may also recycle events: events handed back through {@link #recycle(Event)} once
+ * executed are reused by the next {@code create} calls, so a simulation in steady state
+ * allocates almost no events.
  */
 public class EventFactory {
+    /** The strategy shared by all move events. */
+    private static final Event_Strategy MOVE = new Move_Event();
+    /** The strategy shared by all death events. */
+    private static final Event_Strategy DEATH = new Death_Event();
+    /** The strategy shared by all reproduction events. */
+    private static final Event_Strategy REPRODUCTION = new Reproduction_Event();
 
     /**
-     * Constructs a new EventFactory.
-     * In this specific case, no special initialization is required for the factory.
+     * The executed events waiting to be reused, or {@code null} if this factory does not recycle events.
+     */
+    private final ArrayDeque<Event> pool;
+
+    /**
+     * Constructs a new EventFactory that does not recycle events.
      */
     public EventFactory() {
-        // Nenhuma inicialização necessária neste caso
+        this(false);
+    }
+
+    /**
+     * Constructs a new EventFactory.
+     *
+     * @param reciclar {@code true} to reuse the events handed back through {@link #recycle(Event)}.
+     */
+    public EventFactory(boolean reciclar) {
+        this.pool = reciclar ? new ArrayDeque<>() : null;
     }
 
     /**
@@ -28,7 +54,7 @@ public class EventFactory {
      * @return A new {@link Event} object configured for a movement.
      */
     public Event createMoveEvent(Individual individual, int time) {
-        return new Event(time, individual, new Move_Event());
+        return obter(time, individual, MOVE);
     }
 
     /**
@@ -42,7 +68,7 @@ public class EventFactory {
      * @return A new {@link Event} object configured for a death event.
      */
     public Event createDeathEvent(Individual individual, int time) {
-        return new Event(time, individual, new Death_Event());
+        return obter(time, individual, DEATH);
     }
 
     /**
@@ -55,6 +81,69 @@ public class EventFactory {
      * @return A new {@link Event} object configured for a reproduction event.
      */
     public Event createReproductionEvent(Individual individual, int time) {
-        return new Event(time, individual, new Reproduction_Event());
+        return obter(time, individual, REPRODUCTION);
+    }
+
+    /**
+     * Returns the kind of an event created by a factory, for saving it in a checkpoint.
+     *
+     * @param event The {@link Event}.
+     * @return 0 for a move, 1 for a death and 2 for a reproduction event.
+     * @throws IllegalArgumentException If the event has another strategy.
+     */
+    static int tipo(Event event) {
+        Event_Strategy s = event.getStrategy();
+        if (s == MOVE) return 0;
+        if (s == DEATH) return 1;
+        if (s == REPRODUCTION) return 2;
+        throw new IllegalArgumentException("Evento desconhecido: " + event);
+    }
+
+    /**
+     * Creates an event of the given kind, the inverse of {@link #tipo(Event)}.
+     *
+     * @param tipo The kind of the event, as returned by {@link #tipo(Event)}.
+     * @param individual The {@link Individual} of the event.
+     * @param time The simulated time of the event.
+     * @return The new {@link Event}.
+     * @throws IllegalArgumentException If the kind is not valid.
+     */
+    Event create(int tipo, Individual individual, int time) {
+        switch (tipo) {
+            case 0: return createMoveEvent(individual, time);
+            case 1: return createDeathEvent(individual, time);
+            case 2: return createReproductionEvent(individual, time);
+            default: throw new IllegalArgumentException("Tipo de evento inválido: " + tipo);
+        }
+    }
+
+    /**
+     * Hands an executed event back to the factory for reuse. The caller must hold no other
+     * reference to the event, and the event must not be in a {@link PEC}. Does nothing if
+     * this factory does not recycle events.
+     *
+     * @param event The executed {@link Event}.
+     */
+    public void recycle(Event event) {
+        if (pool != null) {
+            event.reciclar();
+            pool.push(event);
+        }
+    }
+
+    /**
+     * Returns an event for the given time, individual and strategy, reusing a recycled
+     * event when one is available.
+     *
+     * @param time The simulated time of the event.
+     * @param individual The {@link Individual} of the event.
+     * @param strategy The {@link Event_Strategy} of the event.
+     * @return The configured {@link Event}.
+     */
+    private Event obter(int time, Individual individual, Event_Strategy strategy) {
+        Event e = pool != null ? pool.poll() : null;
+        if (e == null) return new Event(time, individual, strategy);
+        e.reiniciar(time, individual, strategy);
+        return e;
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package CORE;
+
+import java.util.List;
+
+/**
+ * Defines the storage backend of the {@link PEC}: a queue that returns events
+ * in ascending order of time and, for equal times, in ascending order of
+ * sequence number (see {@link Event#compareTo(Event)}).
+ * <p>
+ * Every implementation returns events in exactly the same order, so the backend
+ * can be swapped without changing the course of a simulation.
+ */
+public interface EventQueue {
+	/**
+	 * Inserts an event into the queue.
+	 *
+	 * @param aEvent The {@link Event} to insert.
+	 */
+	void add(Event aEvent);
+
+	/**
+	 * Retrieves and removes the first event of the queue.
+	 *
+	 * @return The first {@link Event}, or {@code null} if the queue is empty.
+	 */
+	Event poll();
+
+	/**
+	 * Retrieves, without removing it, the first event of the queue.
+	 *
+	 * @return The first {@link Event}, or {@code null} if the queue is empty.
+	 */
+	Event peek();
+
+	/**
+	 * Returns the number of events in the queue.
+	 *
+	 * @return The number of events.
+	 */
+	int size();
+
+	/**
+	 * Removes the events scheduled for the given time, if it is the time of the first event,
+	 * and appends them to a list in queue order.
+	 *
+	 * @param time The time of the events to remove.
+	 * @param destino The list to append the events to.
+	 */
+	default void pollAll(int time, List<Event> destino) {
+		while (!isEmpty() && peek().getTime() == time) {
+			destino.add(poll());
+		}
+	}
+
+	/**
+	 * Checks whether the queue holds no events.
+	 *
+	 * @return {@code true} if the queue is empty.
+	 */
+	default boolean isEmpty() {
+		return size() == 0;
+	}
+}
@@ -0,0 +1,41 @@
+package CORE;
+
+import java.util.PriorityQueue;
+
+/**
+ * The reference {@link EventQueue}, backed by a binary heap ({@link PriorityQueue}).
+ * Insertion and removal take logarithmic time and work for any event times.
+ */
+public class HeapEventQueue implements EventQueue {
+	/**
+	 * The heap holding the events, ordered by {@link Event#compareTo(Event)}.
+	 */
+	private PriorityQueue<Event> eventos;
+
+	/**
+	 * Constructs an empty heap-backed event queue.
+	 */
+	public HeapEventQueue() {
+		this.eventos = new PriorityQueue<>();
+	}
+
+	@Override
+	public void add(Event aEvent) {
+		eventos.add(aEvent);
+	}
+
+	@Override
+	public Event poll() {
+		return eventos.poll();
+	}
+
+	@Override
+	public Event peek() {
+		return eventos.peek();
+	}
+
+	@Override
+	public int size() {
+		return eventos.size();
+	}
+}
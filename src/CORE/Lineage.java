@@ -0,0 +1,81 @@
+package CORE;
+
+import java.util.Arrays;
+
+/**
+ * An opt-in record of the ancestry of a population, kept outside the individuals.
+ * <p>
+ * Individuals hold no reference to their parents, so an individual that leaves the
+ * population can be reclaimed together with the part of its path no descendant shares.
+ * When lineage is wanted, the {@link PopulationManager} records the parent of each
+ * individual here by {@link MODE.Individual#getId() id}: one {@code int} per individual
+ * ever added, whatever became of it.
+ */
+public class Lineage {
+	/**
+	 * The id of the parent of each individual, indexed by id; -1 for individuals without
+	 * a parent and for ids not recorded yet.
+	 */
+	private int[] pais = new int[1024];
+	/**
+	 * One more than the largest id recorded.
+	 */
+	private int tamanho;
+
+	/**
+	 * Constructs an empty lineage.
+	 */
+	public Lineage() {
+		Arrays.fill(pais, -1);
+	}
+
+	/**
+	 * Records the parent of an individual.
+	 *
+	 * @param id The id of the individual.
+	 * @param pai The id of its parent, or -1 if it has none.
+	 */
+	public void record(int id, int pai) {
+		if (id >= pais.length) {
+			int antigo = pais.length;
+			pais = Arrays.copyOf(pais, Math.max(id + 1, antigo * 2));
+			Arrays.fill(pais, antigo, pais.length, -1);
+		}
+		pais[id] = pai;
+		tamanho = Math.max(tamanho, id + 1);
+	}
+
+	/**
+	 * Returns the id of the parent of an individual.
+	 *
+	 * @param id The id of the individual.
+	 * @return The id of its parent, or -1 if it has none or was not recorded.
+	 */
+	public int getParent(int id) {
+		return id >= 0 && id < tamanho ? pais[id] : -1;
+	}
+
+	/**
+	 * Returns the ids of the ancestors of an individual, from its parent to the
+	 * oldest recorded ancestor.
+	 *
+	 * @param id The id of the individual.
+	 * @return The ids of its ancestors, empty if it has no recorded parent.
+	 */
+	public int[] getAncestors(int id) {
+		int n = 0;
+		for (int a = getParent(id); a >= 0; a = getParent(a)) n++;
+		int[] ancestrais = new int[n];
+		int i = 0;
+		for (int a = getParent(id); a >= 0; a = getParent(a)) ancestrais[i++] = a;
+		return ancestrais;
+	}
+
+	/**
+	 * Returns the number of ids covered by this lineage.
+	 * @return One more than the largest id recorded.
+	 */
+	public int size() {
+		return tamanho;
+	}
+}
@@ -2,9 +2,7 @@ package CORE;
 
 import MODE.Grid;
 import MODE.Individual;
-import MODE.Coordenadas;
-
-import java.util.List;
+import UTIL.RandomUtil;
 
 /**
  * Implements the {@link Event_Strategy} for a "Move" event.
@@ -40,61 +38,64 @@ public class Move_Event implements Event_Strategy {
 	 */
 	@Override
 	public void execute(Simulation_Context context, Individual individual) {
+		RandomUtil random = context.getRandom();
+		if (!advance(context.getGrid(), individual, random)) return;
 
-		// Retrieve necessary components from the context
-		Grid grid = context.getGrid();
-		Coordenadas current = individual.getCurrentPosition();
+		// Keep the population's comfort and cost rankings in step with the new path
+		context.getPopulation().update(individual);
 
-		// Get all valid (non-obstacle, within-bounds) adjacent positions
-		List<Coordenadas> valid = grid.getValidMoves(current);
+		// Calculate the duration until the next move using an exponential distribution,
+		// with the mean influenced by the individual's comfort, as updated by the move.
+		double phi = context.getPopulation().getComfort(individual);
+		schedule(context, individual, random.nextDelay(context.getDelta(), phi));
+	}
 
-		// Proceed only if there are valid moves available
-		if (!valid.isEmpty()) {
-			// Choose a random valid adjacent coordinate to move to
-			int idx = (int) Math.floor(Math.random() * valid.size());
-			Coordenadas next = valid.get(idx);
+	/**
+	 * Moves an individual to a random valid adjacent cell, removing any cycle from its path.
+	 * It only touches the individual and reads the immutable grid, so moves of distinct
+	 * individuals can run concurrently, each with its own generator.
+	 *
+	 * @param grid The immutable {@link Grid} the individual moves on.
+	 * @param individual The {@link Individual} that is performing the move.
+	 * @param random The generator that picks the direction.
+	 * @return {@code true} if the individual moved, {@code false} if it had no valid move.
+	 */
+	static boolean advance(Grid grid, Individual individual, RandomUtil random) {
+		int cell = individual.getLastCell();
 
-			// Update the individual's position and remove any cycles from its path
-			individual.moveTo(next);
+		// Get all valid (non-obstacle, within-bounds) adjacent directions as a bitmask
+		int valid = grid.getValidMoveMask(cell);
 
-			// Schedule the next movement event for this individual
-			int now = context.getTempoAtual();      // Current simulation time
-			int death = individual.getDeathTime();  // Individual's scheduled death time
-			int tau = context.getTempoFinal();      // Simulation's end time
+		// Proceed only if there are valid moves available
+		if (valid == 0) return false;
 
-			// Calculate the duration until the next move using an exponential distribution,
-			// with the mean influenced by the individual's comfort.
-			int delta = gerarExpo(context.getDelta(), individual, context);
-			int nextTime = now + delta; // Calculate the absolute time of the next event
+		// Choose a random valid adjacent direction to move to
+		int idx = random.nextInt(Integer.bitCount(valid));
+		int next = grid.getNeighbour(cell, Grid.nthDirection(valid, idx));
 
-			// Only schedule the next move if it occurs before the individual's death time
-			// and before the overall simulation end time.
-			if (nextTime < death && nextTime <= tau) {
-				Event me = context.getEventFactory().createMoveEvent(individual, nextTime);
-				context.getPEC().addEvent(me);
-			}
-		}
+		// Update the individual's position and remove any cycles from its path
+		individual.moveTo(next);
+		return true;
 	}
 
 	/**
-	 * Generates a random integer from an exponential distribution.
-	 * The mean of this distribution is dynamically adjusted based on the individual's
-	 * comfort ($\phi$) and a base mean value. The formula for lambda (rate parameter) is:
-	 * $\lambda = \frac{1}{(1 - \ln(\phi)) \cdot \text{mediaBase}}$.
-	 * The random number is then generated using the inverse transform sampling method for exponential distribution.
+	 * Schedules the next move of an individual that has just moved.
 	 *
-	 * @param mediaBase The base mean value for the exponential distribution (parameter $\delta$).
-	 * @param ind The {@link Individual} whose comfort level ($\phi$) influences the distribution's mean.
-	 * @param ctx The {@link Simulation_Context} to access the grid, target, and K for comfort calculation.
-	 * @return A randomly generated integer representing a time duration, rounded up to the nearest integer.
+	 * @param context The {@link Simulation_Context} of the simulation.
+	 * @param individual The {@link Individual} that moved.
+	 * @param delta The delay until the next move.
 	 */
-	private int gerarExpo(double mediaBase, Individual ind, Simulation_Context ctx) {
-		double phi = ind.getComfort(ctx.getGrid(), ctx.getDestino(), ctx.getK());
-		// Calculate lambda (rate parameter) based on phi and mediaBase
-		// Note: Math.log is natural logarithm (ln)
-		double lambda = 1.0 / ((1 - Math.log(phi)) * mediaBase);
-		double u = Math.random(); // Uniform random number [0, 1)
-		// Inverse transform sampling for exponential distribution
-		return (int) Math.ceil(-Math.log(1 - u) / lambda);
+	static void schedule(Simulation_Context context, Individual individual, int delta) {
+		int now = context.getTempoAtual();      // Current simulation time
+		int death = individual.getDeathTime();  // Individual's scheduled death time
+		int tau = context.getTempoFinal();      // Simulation's end time
+		int nextTime = now + delta; // Calculate the absolute time of the next event
+
+		// Only schedule the next move if it occurs before the individual's death time
+		// and before the overall simulation end time.
+		if (nextTime < death && nextTime <= tau) {
+			Event me = context.getEventFactory().createMoveEvent(individual, nextTime);
+			context.getPEC().addEvent(me);
+		}
 	}
-}
\ No newline at end of file
+}
@@ -1,59 +1,194 @@
 package CORE;
 
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents the Priority Event Calendar (PEC) for the simulation.
  * The PEC is a data structure that stores and manages events in chronological order,
  * ensuring that the event with the earliest scheduled time is always processed next.
- * It uses a {@link PriorityQueue} internally to maintain this order.
+ * Events scheduled for the same time are processed in the order they were added.
+ * The events are stored in a pluggable {@link EventQueue}: the binary heap
+ * {@link HeapEventQueue} is the reference implementation, and {@link CalendarEventQueue}
+ * exploits the integer event times for constant-time operations.
+ * <p>
+ * Cancelled events (see {@link Event#isCancelled()}) are removed lazily: they stay in
+ * the queue until they reach its head, where they are discarded and counted instead
+ * of being returned.
  */
 public class PEC {
 	/**
-	 * A priority queue storing {@link Event} objects.
+	 * The queue storing {@link Event} objects.
 	 * Events are ordered based on their scheduled time, with the earliest event
 	 * having the highest priority.
 	 */
-	private PriorityQueue<Event> eventos;
+	private EventQueue eventos;
+	/**
+	 * The sequence number given to the next event added.
+	 */
+	private long proximoSeq;
+	/**
+	 * The number of cancelled events discarded so far.
+	 */
+	private long cancelados;
 
 	/**
 	 * Constructs a new Priority Event Calendar.
-	 * Initializes an empty priority queue to store events.
+	 * Initializes an empty binary heap ({@link HeapEventQueue}) to store events.
 	 */
 	public PEC() {
-		this.eventos = new PriorityQueue<>();
+		this(new HeapEventQueue());
+	}
+
+	/**
+	 * Constructs a new Priority Event Calendar backed by the given queue.
+	 *
+	 * @param eventos An empty {@link EventQueue} to store the events.
+	 */
+	public PEC(EventQueue eventos) {
+		this.eventos = eventos;
 	}
 
 	/**
 	 * Adds a new event to the Priority Event Calendar.
 	 * The event will be automatically placed in the correct chronological order
-	 * within the queue.
+	 * within the queue, after any event already scheduled for the same time.
 	 *
 	 * @param aEvent The {@link Event} to be added to the PEC.
 	 */
 	public void addEvent(Event aEvent) {
+		aEvent.setSeq(proximoSeq++);
 		eventos.add(aEvent);
 	}
 
 	/**
 	 * Retrieves and removes the next event from the Priority Event Calendar.
-	 * This is the event with the earliest scheduled time.
+	 * This is the earliest scheduled event that has not been cancelled.
 	 *
 	 * @return The next {@link Event} to be processed, or {@code null} if the PEC is empty.
 	 */
 	public Event getNextEvent() {
+		descartarCancelados();
 		return eventos.poll(); // Remove e devolve o evento mais próximo
 	}
 
+	/**
+	 * Removes every event scheduled for the given time, the time slice at the head of the
+	 * calendar, and appends to a list those that were not cancelled, in the order they were
+	 * added. Does nothing if the next event is not scheduled for that time.
+	 * <p>
+	 * Events added later for the same time are not included, and an event of the slice may
+	 * be cancelled by another one executed before it, so the caller must skip the events of
+	 * the slice that are {@link Event#isCancelled() cancelled} when their turn comes.
+	 *
+	 * @param time The time of the slice, normally {@link #peekNextEvent()}.
+	 * @param destino The list to append the events to.
+	 * @return The number of events appended.
+	 */
+	public int drain(int time, List<Event> destino) {
+		int inicio = destino.size();
+		descartarCancelados();
+		eventos.pollAll(time, destino);
+		int livre = inicio;
+		for (int i = inicio; i < destino.size(); i++) {
+			Event e = destino.get(i);
+			if (e.isCancelled()) {
+				cancelados++;
+			} else {
+				destino.set(livre++, e);
+			}
+		}
+		destino.subList(livre, destino.size()).clear();
+		return livre - inicio;
+	}
+
 	/**
 	 * Checks if there are any events remaining in the Priority Event Calendar.
 	 *
-	 * @return {@code true} if the PEC contains one or more events, {@code false} otherwise.
+	 * @return {@code true} if the PEC contains one or more events that were not cancelled, {@code false} otherwise.
 	 */
 	public boolean hasEvents() {
+		descartarCancelados();
 		return !eventos.isEmpty();
 	}
 
+	/**
+	 * Returns the number of cancelled events discarded by this calendar so far.
+	 *
+	 * @return The number of cancelled events that were skipped instead of executed.
+	 */
+	public long getCancelledCount() {
+		return cancelados;
+	}
+
+	/**
+	 * Returns the number of events in the calendar, including cancelled events
+	 * that have not reached the head of the queue yet.
+	 *
+	 * @return The number of pending events.
+	 */
+	public int size() {
+		return eventos.size();
+	}
+
+	/**
+	 * Returns the events waiting to execute, in the order they will execute, for saving
+	 * them in a checkpoint. The cancelled events are discarded on the way; the others are
+	 * put back with their sequence numbers, so the calendar is otherwise unchanged.
+	 *
+	 * @return A new list of the pending events that were not cancelled.
+	 */
+	List<Event> pendentes() {
+		List<Event> lista = new ArrayList<>(eventos.size());
+		for (Event e = getNextEvent(); e != null; e = getNextEvent()) {
+			lista.add(e);
+		}
+		for (Event e : lista) {
+			eventos.add(e);
+		}
+		return lista;
+	}
+
+	/**
+	 * Returns the sequence number the next event added will receive.
+	 *
+	 * @return The next sequence number.
+	 */
+	long getNextSeq() {
+		return proximoSeq;
+	}
+
+	/**
+	 * Puts back an event saved in a checkpoint, keeping its sequence number. Events must be
+	 * restored in the order they execute, into an empty calendar, before {@link #restore(long)}.
+	 *
+	 * @param aEvent The {@link Event}, whose sequence number is already set.
+	 */
+	void restore(Event aEvent) {
+		eventos.add(aEvent);
+	}
+
+	/**
+	 * Sets the sequence number of the next event added, after the events of a checkpoint
+	 * were {@link #restore(Event) restored}.
+	 *
+	 * @param proximoSeq The next sequence number.
+	 */
+	void restore(long proximoSeq) {
+		this.proximoSeq = proximoSeq;
+	}
+
+	/**
+	 * Discards the cancelled events at the head of the queue, so that its head is
+	 * the next event to execute.
+	 */
+	private void descartarCancelados() {
+		while (!eventos.isEmpty() && eventos.peek().isCancelled()) {
+			eventos.poll();
+			cancelados++;
+		}
+	}
+
 	/**
 	 * Peeks at the scheduled time of the next event in the Priority Event Calendar
 	 * without removing it.
@@ -61,6 +196,7 @@ public class PEC {
 	 * @return The time of the next {@link Event}, or -1 if the PEC is empty.
 	 */
 	public double peekNextEvent() {
+		descartarCancelados();
 		if (eventos.isEmpty()) return -1;
 		return eventos.peek().getTime();
 	}
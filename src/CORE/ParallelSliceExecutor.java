@@ -0,0 +1,203 @@
+package CORE;
+
+import MODE.ComfortEngine;
+import MODE.Grid;
+import MODE.Individual;
+import UTIL.RandomUtil;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Executes the events of a time slice, the events scheduled for one simulated time, with
+ * the moves spread over a fork-join pool.
+ * <p>
+ * A move only changes its own individual's path, so consecutive moves in a slice commute:
+ * they are executed as a batch whose moves run concurrently, and whose effects on shared
+ * state (the population's rankings and the next move events) are then merged on the
+ * calling thread in event order. Deaths, reproductions and epidemics change the population,
+ * so they are executed one at a time, between batches, as in the sequential loop.
+ * <p>
+ * Each move draws from its own generator, {@linkplain RandomUtil#derive(long) derived} from
+ * the simulation's generator and the event's sequence number, instead of from the shared
+ * sequence. The result is therefore the same for any number of threads, but it is not the
+ * trajectory of the sequential loop with the same seed.
+ */
+final class ParallelSliceExecutor {
+	/**
+	 * The smallest batch of moves worth splitting between threads; smaller batches, and the
+	 * pieces a batch is split into, run on a single thread.
+	 */
+	static final int LIMIAR = 512;
+
+	/**
+	 * The context of the simulation.
+	 */
+	private final Simulation_Context context;
+	/**
+	 * The pool the moves run on, or {@code null} to run them on the calling thread.
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * The events of the current batch of moves.
+	 */
+	private Event[] lote = new Event[LIMIAR];
+	/**
+	 * The delay until the next move of each individual of the batch, or -1 if it did not move.
+	 */
+	private int[] atrasos = new int[LIMIAR];
+
+	/**
+	 * Constructs an executor for a simulation.
+	 *
+	 * @param context The {@link Simulation_Context} of the simulation.
+	 * @param pool The pool to run the moves on, or {@code null} to run them on the calling thread.
+	 */
+	ParallelSliceExecutor(Simulation_Context context, ForkJoinPool pool) {
+		this.context = context;
+		this.pool = pool;
+	}
+
+	/**
+	 * Executes the events of a time slice, already removed from the calendar, in the order
+	 * given. Events cancelled by an earlier event of the slice are skipped, and an epidemic
+	 * is applied after every event that leaves the population above its maximum size.
+	 *
+	 * @param fatia The events of the slice, in the order they were scheduled.
+	 * @return The number of events executed.
+	 */
+	int execute(List<Event> fatia) {
+		PopulationManager pm = context.getPopulation();
+		int nuMax = context.getParameters().getNuMax();
+		EventFactory factory = context.getEventFactory();
+		int realizados = 0;
+		int i = 0;
+		while (i < fatia.size()) {
+			Event e = fatia.get(i);
+			if (e.isCancelled()) {
+				factory.recycle(e);
+				i++;
+			} else if (e.getStrategy() instanceof Move_Event) {
+				// Moves do not change the size of the population, so no epidemic can strike
+				// between them while it is within its maximum size
+				int fim = i + 1;
+				if (pm.size() <= nuMax) {
+					while (fim < fatia.size() && (fatia.get(fim).getStrategy() instanceof Move_Event
+							|| fatia.get(fim).isCancelled())) {
+						fim++;
+					}
+				}
+				realizados += mover(fatia, i, fim);
+				if (pm.size() > nuMax) pm.applyEpidemic();
+				i = fim;
+			} else {
+				e.execute(context);
+				realizados++;
+				factory.recycle(e);
+				if (pm.size() > nuMax) pm.applyEpidemic();
+				i++;
+			}
+		}
+		return realizados;
+	}
+
+	/**
+	 * Executes a run of move events, running the moves concurrently and then merging their
+	 * effects in event order.
+	 *
+	 * @param fatia The events of the slice.
+	 * @param de The index of the first event of the run.
+	 * @param ate The index after the last event of the run.
+	 * @return The number of events executed.
+	 */
+	private int mover(List<Event> fatia, int de, int ate) {
+		int n = 0;
+		if (lote.length < ate - de) {
+			lote = new Event[ate - de];
+			atrasos = new int[ate - de];
+		}
+		EventFactory factory = context.getEventFactory();
+		for (int i = de; i < ate; i++) {
+			Event e = fatia.get(i);
+			if (e.isCancelled()) {
+				factory.recycle(e);
+			} else {
+				lote[n++] = e;
+			}
+		}
+
+		if (pool != null && n >= LIMIAR) {
+			pool.invoke(new Movimentos(0, n));
+		} else {
+			avancar(0, n);
+		}
+
+		// Merge the moves in event order, so rankings and sequence numbers do not depend on the threads
+		PopulationManager pm = context.getPopulation();
+		for (int k = 0; k < n; k++) {
+			Individual ind = lote[k].getIndividual();
+			if (atrasos[k] >= 0) {
+				pm.update(ind);
+				Move_Event.schedule(context, ind, atrasos[k]);
+			}
+			factory.recycle(lote[k]);
+			lote[k] = null;
+		}
+		return n;
+	}
+
+	/**
+	 * Moves the individuals of part of the batch and draws the delays until their next
+	 * moves. Only touches the individuals of that part and reads the shared state.
+	 *
+	 * @param de The index of the first move.
+	 * @param ate The index after the last move.
+	 */
+	private void avancar(int de, int ate) {
+		Grid grid = context.getGrid();
+		ComfortEngine engine = context.getComfortEngine();
+		RandomUtil random = context.getRandom();
+		double delta = context.getDelta();
+		for (int k = de; k < ate; k++) {
+			Event e = lote[k];
+			Individual ind = e.getIndividual();
+			RandomUtil proprio = random.derive(e.getSeq());
+			atrasos[k] = Move_Event.advance(grid, ind, proprio)
+					? proprio.nextDelay(delta, ind.getComfort(engine)) : -1;
+		}
+	}
+
+	/**
+	 * A part of the batch of moves, split in halves until it is no larger than {@link #LIMIAR}.
+	 */
+	private final class Movimentos extends RecursiveAction {
+		/** The serialization version; the tasks are never serialized. */
+		private static final long serialVersionUID = 1L;
+		/** The index of the first move of the part. */
+		private final int de;
+		/** The index after the last move of the part. */
+		private final int ate;
+
+		/**
+		 * Constructs a part of the batch.
+		 *
+		 * @param de The index of the first move.
+		 * @param ate The index after the last move.
+		 */
+		Movimentos(int de, int ate) {
+			this.de = de;
+			this.ate = ate;
+		}
+
+		@Override
+		protected void compute() {
+			if (ate - de <= LIMIAR) {
+				avancar(de, ate);
+			} else {
+				int meio = (de + ate) >>> 1;
+				invokeAll(new Movimentos(de, meio), new Movimentos(meio, ate));
+			}
+		}
+	}
+}
@@ -4,25 +4,51 @@ import MODE.Individual;
 import MODE.Grid;
 import MODE.Coordenadas;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Manages the population of {@link Individual} entities within the simulation.
  * This class is responsible for adding, removing, and querying individuals,
  * as well as implementing population-wide events like "epidemics" which affect
  * the survival of individuals based on their "comfort" level.
+ * <p>
+ * The manager keeps the population ranked by comfort, and the individuals at the
+ * destination ranked by path cost, in indexed heaps that are updated as individuals
+ * join, move and leave. Best-fit and top-k queries read the rankings instead of
+ * scanning the population. Ties are broken in favour of the individual that joined first.
  */
 public class PopulationManager {
 	/**
 	 * A list of all {@link Individual} entities currently tracked by the manager,
-	 * including both living and dead individuals.
+	 * including both living and dead individuals. Each individual's
+	 * {@link Individual#getSlot() slot} is its index in this list, and removals move the
+	 * last individual into the freed slot, so the order of the list is not meaningful.
 	 */
 	private List<Individual> individuals = new ArrayList<>();
+	/**
+	 * A read-only view of {@link #individuals}, handed out instead of copies.
+	 */
+	private List<Individual> view = Collections.unmodifiableList(individuals);
 	/**
 	 * A reference to the {@link Simulation_Context}, providing access to global
 	 * simulation parameters, the grid, current time, and other shared resources.
 	 */
 	private Simulation_Context context;
+	/**
+	 * The whole population, ranked by comfort.
+	 */
+	private RankingHeap porConforto = new RankingHeap(0);
+	/**
+	 * The individuals at the destination, ranked by path cost (lowest first).
+	 */
+	private RankingHeap porCusto = new RankingHeap(1);
+	/**
+	 * The identifier given to the next individual added.
+	 */
+	private int proximoId;
+	/**
+	 * The record of each individual's parent, or {@code null} if lineage is not tracked.
+	 */
+	private Lineage linhagem;
 
 	/**
 	 * Constructs a new PopulationManager.
@@ -36,26 +62,187 @@ public class PopulationManager {
 	}
 
 	/**
-	 * Adds a new individual to the population.
+	 * Sets the {@link Simulation_Context} of this population manager, for a manager
+	 * constructed before its context existed.
+	 *
+	 * @param context The {@link Simulation_Context} associated with this population manager.
+	 */
+	public void setContext(Simulation_Context context) {
+		this.context = context;
+	}
+
+	/**
+	 * Starts recording the parent of every individual added from now on. Lineage is not
+	 * tracked by default, so that nothing keeps the ancestry of the population.
+	 *
+	 * @param linhagem The {@link Lineage} to record into, or {@code null} to stop recording.
+	 */
+	public void setLineage(Lineage linhagem) {
+		this.linhagem = linhagem;
+	}
+
+	/**
+	 * Returns the lineage recorded by this population manager.
+	 *
+	 * @return The {@link Lineage}, or {@code null} if lineage is not tracked.
+	 */
+	public Lineage getLineage() {
+		return linhagem;
+	}
+
+	/**
+	 * Adds a new individual to the population and ranks it.
 	 *
 	 * @param individual The {@link Individual} to be added.
 	 */
 	public void add(Individual individual) {
+		add(individual, null);
+	}
+
+	/**
+	 * Adds a new child to the population and ranks it, recording its parent if lineage is tracked.
+	 *
+	 * @param individual The {@link Individual} to be added.
+	 * @param parent The parent of the individual, or {@code null} if it has none.
+	 */
+	public void add(Individual individual, Individual parent) {
+		individual.setId(proximoId++);
+		if (linhagem != null) {
+			linhagem.record(individual.getId(), parent != null ? parent.getId() : -1);
+		}
+		inserir(individual);
+	}
+
+	/**
+	 * Puts back an individual saved in a checkpoint with its identifier. Individuals must be
+	 * restored in slot order, and the lineage, if tracked, is restored separately.
+	 *
+	 * @param individual The {@link Individual} to be restored.
+	 * @param id The identifier the individual had when it was saved.
+	 */
+	void restore(Individual individual, int id) {
+		individual.setId(id);
+		inserir(individual);
+	}
+
+	/**
+	 * Returns the identifier that will be given to the next individual added.
+	 *
+	 * @return The next identifier.
+	 */
+	int getNextId() {
+		return proximoId;
+	}
+
+	/**
+	 * Sets the identifier that will be given to the next individual added, after the
+	 * individuals of a checkpoint were {@link #restore(Individual, int) restored}.
+	 *
+	 * @param proximoId The next identifier.
+	 */
+	void setNextId(int proximoId) {
+		this.proximoId = proximoId;
+	}
+
+	/**
+	 * Places an individual that already has its identifier in the last slot, and ranks it.
+	 *
+	 * @param individual The {@link Individual} to be placed.
+	 */
+	private void inserir(Individual individual) {
+		individual.setSlot(individuals.size());
 		individuals.add(individual);
+		porConforto.add(individual, conforto(individual));
+		if (individual.isAt(context.getDestino())) {
+			porCusto.add(individual, -individual.getCost(context.getGrid()));
+		}
 	}
 
 	/**
-	 * Removes a specified individual from the population.
+	 * Updates the rankings after an individual of the population changed its path.
+	 * Must be called after every move of a member of the population.
+	 *
+	 * @param individual The {@link Individual} that moved.
+	 */
+	public void update(Individual individual) {
+		if (individual.getSlot() < 0) return; // Not in the population
+		porConforto.update(individual, conforto(individual));
+		boolean noDestino = individual.isAt(context.getDestino());
+		if (noDestino && porCusto.contains(individual)) {
+			porCusto.update(individual, -individual.getCost(context.getGrid()));
+		} else if (noDestino) {
+			porCusto.add(individual, -individual.getCost(context.getGrid()));
+		} else {
+			porCusto.remove(individual);
+		}
+	}
+
+	/**
+	 * Returns the comfort of an individual. For a member of the population this is the
+	 * value held by the comfort ranking, which is current after {@link #update(Individual)}.
+	 *
+	 * @param individual The {@link Individual}.
+	 * @return Its comfort.
+	 */
+	public double getComfort(Individual individual) {
+		return porConforto.contains(individual) ? porConforto.getKey(individual) : conforto(individual);
+	}
+
+	/**
+	 * Computes the comfort of an individual with the simulation's comfort engine.
+	 *
+	 * @param individual The {@link Individual}.
+	 * @return Its comfort.
+	 */
+	private double conforto(Individual individual) {
+		return individual.getComfort(context.getComfortEngine());
+	}
+
+	/**
+	 * Removes a specified individual from the population and cancels its pending
+	 * events, so a removed individual no longer moves, reproduces or dies again.
+	 * The removal takes constant time: the last individual takes the freed slot.
 	 *
 	 * @param individual The {@link Individual} to be removed.
 	 */
 	public void remove(Individual individual) {
-		individuals.remove(individual);
+		int slot = individual.getSlot();
+		if (slot < 0 || slot >= individuals.size() || individuals.get(slot) != individual) return;
+		Individual last = individuals.remove(individuals.size() - 1);
+		if (last != individual) {
+			individuals.set(slot, last);
+			last.setSlot(slot);
+		}
+		individual.setSlot(-1);
+		porConforto.remove(individual);
+		porCusto.remove(individual);
+		individual.cancelPendingEvents();
+	}
+
+	/**
+	 * Returns the number of individuals currently managed by this PopulationManager.
+	 *
+	 * @return The population size.
+	 */
+	public int size() {
+		return individuals.size();
+	}
+
+	/**
+	 * Returns a read-only view of all individuals (both alive and potentially dead)
+	 * currently managed by this PopulationManager. The view reflects later changes to
+	 * the population and must not be iterated while the population is being modified.
+	 *
+	 * @return An unmodifiable {@link List} of all {@link Individual} objects.
+	 */
+	public List<Individual> getView() {
+		return view;
 	}
 
 	/**
 	 * Returns a new list containing all individuals (both alive and potentially dead)
 	 * currently managed by this PopulationManager.
+	 * Prefer {@link #getView()} or {@link #size()} when a copy is not needed.
 	 *
 	 * @return A {@link List} of all {@link Individual} objects.
 	 */
@@ -72,27 +259,39 @@ public class PopulationManager {
 	 */
 	public List<Individual> getALIVE() {
 		int tempoAtual = context.getTempoAtual();
-		return individuals.stream()
-				.filter(i -> i.getDeathTime() > tempoAtual) // Filter individuals whose death time is in the future
-				.collect(Collectors.toList());
+		List<Individual> vivos = new ArrayList<>();
+		for (Individual ind : individuals) {
+			// Keep individuals whose death time is in the future
+			if (ind.getDeathTime() > tempoAtual) vivos.add(ind);
+		}
+		return vivos;
 	}
 
 	/**
 	 * Retrieves the top 'k' individuals from the currently alive population,
 	 * ranked by their "comfort" level in descending order (higher comfort is better).
+	 * Only the top of the comfort ranking is visited, so this takes {@code O(k log k)}
+	 * time plus the individuals skipped because they are no longer alive.
 	 *
 	 * @param k The number of top individuals to retrieve.
 	 * @return A {@link List} containing the top 'k' alive {@link Individual} objects
 	 * based on their comfort, or fewer if the total alive population is less than 'k'.
 	 */
 	public List<Individual> getTopK(int k) {
-		return getALIVE().stream()
-				.sorted(Comparator.comparingDouble(
-						// Sort in descending order of comfort
-						i -> -i.getComfort(context.getGrid(), context.getDestino(), context.getK())
-				))
-				.limit(k) // Take only the top 'k'
-				.collect(Collectors.toList());
+		int tempoAtual = context.getTempoAtual();
+		return porConforto.top(k, i -> i.getDeathTime() > tempoAtual);
+	}
+
+	/**
+	 * Returns the "best fit" individual of the population in constant time:
+	 * the individual at the destination with the lowest path cost if any individual
+	 * reached it, otherwise the individual with the highest comfort.
+	 *
+	 * @return The best fit {@link Individual}, or {@code null} if the population is empty.
+	 */
+	public Individual getBestFit() {
+		Individual melhor = porCusto.peek();
+		return melhor != null ? melhor : porConforto.peek();
 	}
 
 	/**
@@ -101,35 +300,38 @@ public class PopulationManager {
 	 * For all other individuals, their survival is determined by a random chance:
 	 * an individual survives if a randomly generated number (between 0 and 1)
 	 * is less than or equal to their "comfort" level. Individuals that do not survive
-	 * are removed from the population.
+	 * are removed from the population and their pending events are cancelled.
 	 * The epidemic only occurs if there are more than 5 living individuals.
+	 * <p>
+	 * The survivors of the top 5 are read from the comfort ranking, and the population is
+	 * then compacted in a single pass that also removes the victims from the rankings in bulk.
 	 */
 	public void applyEpidemic() {
-		List<Individual> vivos = getALIVE();
-		if (vivos.size() <= 5) return; // Nothing to do if population is too small
-
-		// Identify the top 5 most comfortable individuals who are guaranteed survivors
-		List<Individual> top5 = getTopK(5);
-		Set<Individual> sobreviventes = new HashSet<>(top5); // Use a Set for efficient lookup
-
-		// Iterate through all alive individuals to determine survival
-		for (Individual ind : new ArrayList<>(vivos)) { // Iterate over a copy to avoid ConcurrentModificationException during removal
-			// If already marked as a survivor (e.g., part of top 5), skip
-			if (sobreviventes.contains(ind)) continue;
-
-			// Calculate comfort and generate a random number for survival chance
-			double comfort = ind.getComfort(context.getGrid(), context.getDestino(), context.getK());
-			double sorte = Math.random(); // Random number between [0.0, 1.0)
-
-			// If random chance is higher than comfort, the individual "dies" (is removed)
-			if (sorte <= comfort) {
-				// This individual survives, add to the set of survivors (though technically already alive)
-				// Adding here ensures they are retained if we were building a new list of alive individuals
-				sobreviventes.add(ind);
+		// The 6th best alive individual exists only if there are more than 5 alive
+		List<Individual> melhores = getTopK(6);
+		if (melhores.size() <= 5) return; // Nothing to do if population is too small
+		List<Individual> top5 = melhores.subList(0, 5);
+
+		int tempoAtual = context.getTempoAtual();
+		int livre = 0; // The next slot of the compacted population
+		int total = individuals.size();
+		for (int i = 0; i < total; i++) {
+			Individual ind = individuals.get(i);
+			// Individuals that are no longer alive and the top 5 are not affected
+			boolean sobrevive = ind.getDeathTime() <= tempoAtual || top5.contains(ind)
+					// Survive with a probability equal to the comfort, kept up to date by the ranking
+					|| context.getRandom().getUniform() <= porConforto.getKey(ind);
+			if (sobrevive) {
+				individuals.set(livre, ind);
+				ind.setSlot(livre++);
 			} else {
 				// This individual does not survive the epidemic
-				remove(ind);
+				ind.setSlot(-1);
+				ind.cancelPendingEvents();
 			}
 		}
+		individuals.subList(livre, total).clear();
+		porConforto.removeIf(ind -> ind.getSlot() < 0);
+		porCusto.removeIf(ind -> ind.getSlot() < 0);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,295 @@
+package CORE;
+
+import MODE.Individual;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An indexed binary max-heap of individuals, ordered by a numeric key with ties broken
+ * by the smaller {@link Individual#getId() id}. Each individual stores its position in
+ * the heap (see {@link Individual#getHeapIndex(int)}), so the key of any member can be
+ * changed, and any member removed, in logarithmic time.
+ * <p>
+ * The population keeps one heap keyed by comfort and one keyed by the negated path cost
+ * of the individuals at the destination, so the best of either is always at the root.
+ */
+class RankingHeap {
+	/**
+	 * The number of this heap, which selects the position slot used in each individual.
+	 */
+	private final int numero;
+	/**
+	 * The members of the heap, in heap order.
+	 */
+	private Individual[] membros = new Individual[16];
+	/**
+	 * The key of each member, at the member's position.
+	 */
+	private double[] chaves = new double[16];
+	/**
+	 * The number of members.
+	 */
+	private int tamanho;
+	/**
+	 * The frontier of {@link #top(int, Predicate)}, a binary heap of member positions,
+	 * kept between calls so a walk allocates nothing once it has grown.
+	 */
+	private int[] fronteira = new int[16];
+
+	/**
+	 * Constructs an empty heap.
+	 *
+	 * @param numero The number of the heap (0 or 1), distinct for each heap an individual may be in.
+	 */
+	RankingHeap(int numero) {
+		this.numero = numero;
+	}
+
+	/**
+	 * Returns the number of members.
+	 * @return The size of the heap.
+	 */
+	int size() {
+		return tamanho;
+	}
+
+	/**
+	 * Checks whether an individual is a member of this heap.
+	 * @param ind The individual.
+	 * @return {@code true} if the individual is in the heap.
+	 */
+	boolean contains(Individual ind) {
+		return ind.getHeapIndex(numero) >= 0;
+	}
+
+	/**
+	 * Returns the member with the largest key.
+	 * @return The best member, or {@code null} if the heap is empty.
+	 */
+	Individual peek() {
+		return tamanho > 0 ? membros[0] : null;
+	}
+
+	/**
+	 * Returns the key of a member.
+	 * @param ind The member.
+	 * @return Its key.
+	 */
+	double getKey(Individual ind) {
+		return chaves[ind.getHeapIndex(numero)];
+	}
+
+	/**
+	 * Adds an individual that is not a member yet.
+	 *
+	 * @param ind The individual.
+	 * @param chave Its key.
+	 */
+	void add(Individual ind, double chave) {
+		if (tamanho == membros.length) {
+			membros = Arrays.copyOf(membros, tamanho * 2);
+			chaves = Arrays.copyOf(chaves, tamanho * 2);
+		}
+		colocar(tamanho++, ind, chave);
+		subir(tamanho - 1);
+	}
+
+	/**
+	 * Changes the key of a member.
+	 *
+	 * @param ind The member.
+	 * @param chave Its new key.
+	 */
+	void update(Individual ind, double chave) {
+		int i = ind.getHeapIndex(numero);
+		double antiga = chaves[i];
+		chaves[i] = chave;
+		if (chave > antiga) {
+			subir(i);
+		} else if (chave < antiga) {
+			descer(i);
+		}
+	}
+
+	/**
+	 * Removes a member; does nothing if the individual is not a member.
+	 *
+	 * @param ind The individual.
+	 */
+	void remove(Individual ind) {
+		int i = ind.getHeapIndex(numero);
+		if (i < 0) return;
+		ind.setHeapIndex(numero, -1);
+		tamanho--;
+		if (i == tamanho) {
+			membros[tamanho] = null;
+			return;
+		}
+		// The last member fills the hole and moves to its place
+		colocar(i, membros[tamanho], chaves[tamanho]);
+		membros[tamanho] = null;
+		subir(i);
+		descer(membros[i].getHeapIndex(numero));
+	}
+
+	/**
+	 * Removes every member that satisfies a condition, and restores the heap order of the
+	 * remaining members with a single bottom-up heap construction. This takes linear time,
+	 * however many members are removed.
+	 *
+	 * @param filtro The condition of the members to remove.
+	 */
+	void removeIf(Predicate<Individual> filtro) {
+		int restantes = 0;
+		for (int i = 0; i < tamanho; i++) {
+			Individual ind = membros[i];
+			if (filtro.test(ind)) {
+				ind.setHeapIndex(numero, -1);
+			} else {
+				colocar(restantes++, ind, chaves[i]);
+			}
+		}
+		Arrays.fill(membros, restantes, tamanho, null);
+		tamanho = restantes;
+		for (int i = (tamanho >>> 1) - 1; i >= 0; i--) {
+			descer(i);
+		}
+	}
+
+	/**
+	 * Returns the best members that satisfy a condition, best first. Only the members
+	 * that rank above the last one returned are visited, so this takes
+	 * {@code O((k + s) log(k + s))} time, where {@code s} is the number of members skipped.
+	 *
+	 * @param k The maximum number of members to return.
+	 * @param filtro The condition the returned members must satisfy.
+	 * @return Up to {@code k} members satisfying {@code filtro}, in decreasing key order.
+	 */
+	List<Individual> top(int k, Predicate<Individual> filtro) {
+		List<Individual> melhores = new ArrayList<>(Math.min(k, tamanho));
+		if (k <= 0 || tamanho == 0) return melhores;
+		// Best-first walk of the heap tree: a node is visited only after its parent,
+		// with the frontier of unvisited children kept in a heap of positions
+		int n = 0;
+		fronteira[n++] = 0;
+		while (n > 0 && melhores.size() < k) {
+			int i = fronteira[0];
+			fronteira[0] = fronteira[--n];
+			descerFronteira(n);
+			if (filtro.test(membros[i])) melhores.add(membros[i]);
+			// Each visit removes one position and adds at most two, so the frontier never
+			// holds more than the positions visited plus one
+			if (n + 2 > fronteira.length) fronteira = Arrays.copyOf(fronteira, fronteira.length * 2);
+			if (2 * i + 1 < tamanho) n = subirFronteira(n, 2 * i + 1);
+			if (2 * i + 2 < tamanho) n = subirFronteira(n, 2 * i + 2);
+		}
+		return melhores;
+	}
+
+	/**
+	 * Adds a position to the frontier of {@link #top(int, Predicate)}.
+	 *
+	 * @param n The size of the frontier.
+	 * @param posicao The position of a member.
+	 * @return The new size of the frontier.
+	 */
+	private int subirFronteira(int n, int posicao) {
+		int i = n;
+		while (i > 0) {
+			int pai = (i - 1) >>> 1;
+			if (!melhor(posicao, fronteira[pai])) break;
+			fronteira[i] = fronteira[pai];
+			i = pai;
+		}
+		fronteira[i] = posicao;
+		return n + 1;
+	}
+
+	/**
+	 * Moves the position at the root of the frontier of {@link #top(int, Predicate)} down
+	 * until the position of the best member is at the root.
+	 *
+	 * @param n The size of the frontier.
+	 */
+	private void descerFronteira(int n) {
+		if (n == 0) return;
+		int posicao = fronteira[0];
+		int i = 0;
+		while (true) {
+			int filho = 2 * i + 1;
+			if (filho >= n) break;
+			if (filho + 1 < n && melhor(fronteira[filho + 1], fronteira[filho])) filho++;
+			if (!melhor(fronteira[filho], posicao)) break;
+			fronteira[i] = fronteira[filho];
+			i = filho;
+		}
+		fronteira[i] = posicao;
+	}
+
+	/**
+	 * Places a member at a position and records the position in the member.
+	 *
+	 * @param i The position.
+	 * @param ind The member.
+	 * @param chave Its key.
+	 */
+	private void colocar(int i, Individual ind, double chave) {
+		membros[i] = ind;
+		chaves[i] = chave;
+		ind.setHeapIndex(numero, i);
+	}
+
+	/**
+	 * Checks whether the member at position {@code i} ranks above the member at position {@code j}.
+	 *
+	 * @param i A position.
+	 * @param j Another position.
+	 * @return {@code true} if the first member has a larger key, or an equal key and a smaller id.
+	 */
+	private boolean melhor(int i, int j) {
+		if (chaves[i] != chaves[j]) return chaves[i] > chaves[j];
+		return membros[i].getId() < membros[j].getId();
+	}
+
+	/**
+	 * Moves the member at position {@code i} up until its parent ranks above it.
+	 * @param i The position of the member.
+	 */
+	private void subir(int i) {
+		while (i > 0) {
+			int pai = (i - 1) >>> 1;
+			if (!melhor(i, pai)) break;
+			trocar(i, pai);
+			i = pai;
+		}
+	}
+
+	/**
+	 * Moves the member at position {@code i} down until it ranks above its children.
+	 * @param i The position of the member.
+	 */
+	private void descer(int i) {
+		while (true) {
+			int filho = 2 * i + 1;
+			if (filho >= tamanho) break;
+			if (filho + 1 < tamanho && melhor(filho + 1, filho)) filho++;
+			if (!melhor(filho, i)) break;
+			trocar(i, filho);
+			i = filho;
+		}
+	}
+
+	/**
+	 * Swaps the members at two positions.
+	 * @param i A position.
+	 * @param j Another position.
+	 */
+	private void trocar(int i, int j) {
+		Individual a = membros[i];
+		double ca = chaves[i];
+		colocar(i, membros[j], chaves[j]);
+		colocar(j, a, ca);
+	}
+}
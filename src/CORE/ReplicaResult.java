@@ -0,0 +1,85 @@
+package CORE;
+
+import MODE.Coordenadas;
+import java.util.List;
+
+/**
+ * The outcome of one replica of a simulation run by a {@link ReplicaRunner}:
+ * the best fit individual found at the end of the replica.
+ */
+public class ReplicaResult {
+	/**
+	 * The index of the replica in its batch, starting at 0.
+	 */
+	private final int replica;
+	/**
+	 * Whether the best fit individual reached the final point.
+	 */
+	private final boolean hit;
+	/**
+	 * The path of the best fit individual, or an empty list if the population was empty.
+	 */
+	private final List<Coordenadas> path;
+	/**
+	 * The cost of the path of the best fit individual.
+	 */
+	private final int cost;
+	/**
+	 * The comfort of the best fit individual.
+	 */
+	private final double comfort;
+	/**
+	 * The number of events executed by the replica.
+	 */
+	private final int events;
+
+	/**
+	 * Constructs the result of a replica.
+	 *
+	 * @param replica The index of the replica in its batch.
+	 * @param hit Whether the best fit individual reached the final point.
+	 * @param path The path of the best fit individual.
+	 * @param cost The cost of the path of the best fit individual.
+	 * @param comfort The comfort of the best fit individual.
+	 * @param events The number of events executed by the replica.
+	 */
+	public ReplicaResult(int replica, boolean hit, List<Coordenadas> path, int cost, double comfort, int events) {
+		this.replica = replica;
+		this.hit = hit;
+		this.path = path;
+		this.cost = cost;
+		this.comfort = comfort;
+		this.events = events;
+	}
+
+	/**
+	 * Returns the index of the replica in its batch.
+	 * @return The replica index.
+	 */
+	public int getReplica() { return replica; }
+	/**
+	 * Returns whether the best fit individual reached the final point.
+	 * @return {@code true} if the final point was hit.
+	 */
+	public boolean isHit() { return hit; }
+	/**
+	 * Returns the path of the best fit individual.
+	 * @return The path, empty if the population was empty at the end of the replica.
+	 */
+	public List<Coordenadas> getPath() { return path; }
+	/**
+	 * Returns the cost of the path of the best fit individual.
+	 * @return The path cost.
+	 */
+	public int getCost() { return cost; }
+	/**
+	 * Returns the comfort of the best fit individual.
+	 * @return The comfort.
+	 */
+	public double getComfort() { return comfort; }
+	/**
+	 * Returns the number of events executed by the replica.
+	 * @return The number of realized events.
+	 */
+	public int getEvents() { return events; }
+}
@@ -0,0 +1,158 @@
+package CORE;
+
+import MODE.Grid;
+import MODE.Individual;
+import UTIL.RandomUtil;
+import io.ObservationSink;
+import io.SimulationParameters;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent replicas of the same simulation concurrently on a {@link ForkJoinPool}.
+ * <p>
+ * Each replica has its own {@link Simulation_Context}, {@link PEC}, {@link PopulationManager}
+ * and random number generator, and prints nothing; the replicas only share the
+ * {@link SimulationParameters} and the {@link Grid}, which are not modified once the
+ * grid is built. The generators of the replicas are split from one root generator in
+ * replica order before any replica starts, so a seeded batch gives the same results
+ * whatever the number of threads.
+ */
+public class ReplicaRunner {
+	/**
+	 * The parameters shared by all the replicas.
+	 */
+	private final SimulationParameters params;
+	/**
+	 * The grid shared by all the replicas, built from {@link #params}.
+	 */
+	private final Grid grid;
+	/**
+	 * The supplier of the event queue of each replica's {@link PEC}.
+	 */
+	private final Supplier<EventQueue> fila;
+	/**
+	 * The number of replicas run at the same time.
+	 */
+	private final int paralelismo;
+
+	/**
+	 * Constructs a runner that uses one thread per available processor.
+	 *
+	 * @param params The parameters of the simulation.
+	 * @param grid The grid built from {@code params}, shared by all the replicas.
+	 * @param fila The supplier of an empty {@link EventQueue} for each replica.
+	 */
+	public ReplicaRunner(SimulationParameters params, Grid grid, Supplier<EventQueue> fila) {
+		this(params, grid, fila, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a runner that runs up to the given number of replicas at the same time.
+	 *
+	 * @param params The parameters of the simulation.
+	 * @param grid The grid built from {@code params}, shared by all the replicas.
+	 * @param fila The supplier of an empty {@link EventQueue} for each replica.
+	 * @param paralelismo The number of threads of the pool.
+	 */
+	public ReplicaRunner(SimulationParameters params, Grid grid, Supplier<EventQueue> fila, int paralelismo) {
+		this.params = params;
+		this.grid = grid;
+		this.fila = fila;
+		this.paralelismo = paralelismo;
+	}
+
+	/**
+	 * Runs a batch of replicas and waits for all of them to finish.
+	 *
+	 * @param replicas The number of replicas.
+	 * @param random The root generator, from which each replica's generator is split.
+	 * @return The result of each replica, in replica order.
+	 */
+	public List<ReplicaResult> run(int replicas, RandomUtil random) {
+		ForkJoinPool pool = new ForkJoinPool(paralelismo);
+		try {
+			List<ForkJoinTask<ReplicaResult>> tarefas = new ArrayList<>(replicas);
+			for (int i = 0; i < replicas; i++) {
+				final int replica = i;
+				final RandomUtil rng = random.split();
+				tarefas.add(pool.submit(() -> runReplica(replica, rng)));
+			}
+			List<ReplicaResult> resultados = new ArrayList<>(replicas);
+			for (ForkJoinTask<ReplicaResult> t : tarefas) {
+				resultados.add(t.join());
+			}
+			return resultados;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Runs one replica with its own simulation state and discards its output.
+	 *
+	 * @param replica The index of the replica.
+	 * @param random The generator of the replica.
+	 * @return The result of the replica.
+	 */
+	private ReplicaResult runReplica(int replica, RandomUtil random) {
+		Simulation sim = Simulation.setup(params, grid, new PEC(fila.get()), random);
+		sim.setObservationSink(ObservationSink.discard());
+		sim.run();
+
+		Simulation_Context context = sim.getContext();
+		Individual best = context.getBestFitIndividual();
+		if (best == null) {
+			return new ReplicaResult(replica, false, Collections.emptyList(), 0, 0, sim.getRealizedEvents());
+		}
+		return new ReplicaResult(replica, best.isAt(context.getDestino()), best.getPath(),
+				best.getCost(grid), best.getComfort(context.getComfortEngine()),
+				sim.getRealizedEvents());
+	}
+
+	/**
+	 * Prints the result of each replica, followed by statistics of the best path cost
+	 * over the replicas whose best fit individual reached the final point: mean,
+	 * sample standard deviation, 95% confidence interval of the mean (normal
+	 * approximation), minimum and maximum.
+	 *
+	 * @param resultados The results of the replicas.
+	 * @param out The stream to print to.
+	 */
+	public static void printSummary(List<ReplicaResult> resultados, PrintStream out) {
+		int hits = 0;
+		double soma = 0, somaQuadrados = 0;
+		int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+		for (ReplicaResult r : resultados) {
+			out.print("Replica " + r.getReplica() + ": " + r.getEvents() + " events, final point hit: ");
+			if (r.isHit()) {
+				out.println("yes, cost " + r.getCost());
+				hits++;
+				soma += r.getCost();
+				somaQuadrados += (double) r.getCost() * r.getCost();
+				min = Math.min(min, r.getCost());
+				max = Math.max(max, r.getCost());
+			} else {
+				out.println("no, comfort " + String.format("%.6f", r.getComfort()));
+			}
+		}
+		out.println();
+		out.println("Replicas: " + resultados.size());
+		out.println("Final point hit: " + hits);
+		if (hits > 0) {
+			double media = soma / hits;
+			double desvio = hits > 1 ? Math.sqrt(Math.max(0, (somaQuadrados - hits * media * media) / (hits - 1))) : 0;
+			double margem = 1.96 * desvio / Math.sqrt(hits);
+			out.println("Best path cost: mean " + String.format("%.3f", media)
+					+ ", std dev " + String.format("%.3f", desvio)
+					+ ", 95% CI [" + String.format("%.3f", media - margem) + ", " + String.format("%.3f", media + margem) + "]"
+					+ ", min " + min + ", max " + max);
+		}
+	}
+}
@@ -3,9 +3,16 @@ package CORE;
 import MODE.Grid;
 import MODE.Individual;
 import MODE.Coordenadas;
+import io.ObservationSink;
 import io.SimulationParameters;
-import MODE.Special_Cost_Zone;
+import io.TextObservationSink;
+import UTIL.RandomUtil;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.Comparator; // Added import for Comparator
 
 /**
@@ -20,6 +27,44 @@ public class Simulation {
 	 * parameters, and references to other core components.
 	 */
 	private final Simulation_Context context;
+	/**
+	 * The sink the input echo, the observations and the final result are written to.
+	 */
+	private ObservationSink sink = new TextObservationSink(System.out);
+	/**
+	 * The number of events executed so far.
+	 */
+	private int realizados;
+	/**
+	 * The number of the next observation (0 to 20).
+	 */
+	private int numObservacao;
+	/**
+	 * The simulated time of the next observation.
+	 */
+	private int proximaObservacao;
+	/**
+	 * Whether the run has started, i.e. the input parameters were already written. A
+	 * simulation restored from a checkpoint continues its run without writing them again.
+	 */
+	private boolean iniciada;
+	/**
+	 * The file checkpoints are written to, or {@code null} if the run is not checkpointed.
+	 */
+	private Path ficheiroCheckpoint;
+	/**
+	 * The number of time units between checkpoints.
+	 */
+	private int intervaloCheckpoint;
+	/**
+	 * The simulated time of the next checkpoint.
+	 */
+	private int proximoCheckpoint;
+	/**
+	 * The number of threads the moves of a time slice run on, or 0 to run the events one
+	 * at a time with the shared generator.
+	 */
+	private int paralelismo;
 
 	/**
 	 * Constructs a new Simulation instance with the given simulation context.
@@ -30,119 +75,330 @@ public class Simulation {
 		this.context = context;
 	}
 
+	/**
+	 * Returns the simulation context of this simulation.
+	 *
+	 * @return The {@link Simulation_Context} of this simulation.
+	 */
+	public Simulation_Context getContext() {
+		return context;
+	}
+
+	/**
+	 * Sets the sink the simulation writes its output to. By default the output is written
+	 * as text to {@link System#out}. The sink is flushed, not closed, at the end of {@link #run()}.
+	 *
+	 * @param sink The {@link ObservationSink} for the output of {@link #run()}.
+	 */
+	public void setObservationSink(ObservationSink sink) {
+		this.sink = sink;
+	}
+
+	/**
+	 * Sets the stream the simulation prints its text output to.
+	 *
+	 * @param out The {@link PrintStream} for the output of {@link #run()}.
+	 */
+	public void setOutput(PrintStream out) {
+		setObservationSink(new TextObservationSink(out));
+	}
+
+	/**
+	 * Returns the number of events executed by this simulation so far, including those
+	 * executed before the checkpoint it was restored from.
+	 *
+	 * @return The number of realized events.
+	 */
+	public int getRealizedEvents() {
+		return realizados;
+	}
+
+	/**
+	 * Makes {@link #run()} write a checkpoint of the whole simulation state every
+	 * {@code intervalo} time units, from which {@link Checkpoint#read(Path, EventQueue)}
+	 * continues the run. A checkpoint is taken between two events, once the next event is
+	 * due at or after a multiple of {@code intervalo}, and replaces the previous one.
+	 *
+	 * @param intervalo The number of time units between checkpoints; must be positive.
+	 * @param ficheiro The file to write the checkpoints to.
+	 */
+	public void setCheckpoints(int intervalo, Path ficheiro) {
+		if (intervalo <= 0) {
+			throw new IllegalArgumentException("O intervalo entre checkpoints tem de ser positivo");
+		}
+		this.intervaloCheckpoint = intervalo;
+		this.ficheiroCheckpoint = ficheiro;
+	}
+
+	/**
+	 * Makes {@link #run()} execute the time slices with a {@link ParallelSliceExecutor},
+	 * running the moves of each slice on the given number of threads. Each move then draws
+	 * from a generator of its own, so the run differs from a sequential run with the same
+	 * seed, but is the same for any number of threads. A run resumed from a checkpoint
+	 * follows the saved trajectory only in the same mode.
+	 *
+	 * @param threads The number of threads, or 0 to execute the events one at a time.
+	 * @throws IllegalArgumentException If {@code threads} is negative.
+	 */
+	public void setParallelism(int threads) {
+		if (threads < 0) {
+			throw new IllegalArgumentException("O número de threads não pode ser negativo");
+		}
+		this.paralelismo = threads;
+	}
+
+	/**
+	 * Restores the progress of the run loop saved in a checkpoint, so that {@link #run()}
+	 * continues from it.
+	 *
+	 * @param realizados The number of events executed.
+	 * @param numObservacao The number of the next observation.
+	 * @param proximaObservacao The simulated time of the next observation.
+	 */
+	void restore(int realizados, int numObservacao, int proximaObservacao) {
+		this.realizados = realizados;
+		this.numObservacao = numObservacao;
+		this.proximaObservacao = proximaObservacao;
+		this.iniciada = true;
+	}
+
+	/**
+	 * Returns the number of the next observation, for saving it in a checkpoint.
+	 *
+	 * @return The number of the next observation.
+	 */
+	int getNextObservation() {
+		return numObservacao;
+	}
+
+	/**
+	 * Returns the simulated time of the next observation, for saving it in a checkpoint.
+	 *
+	 * @return The time of the next observation.
+	 */
+	int getNextObservationTime() {
+		return proximaObservacao;
+	}
+
+	/**
+	 * Builds a ready-to-run simulation: creates the population manager and the
+	 * simulation context, then creates the initial population and schedules the
+	 * initial death, move and reproduction events of each individual.
+	 *
+	 * @param params The {@link SimulationParameters} of the simulation.
+	 * @param grid The {@link Grid} built from {@code params}.
+	 * @param pec An empty {@link PEC} to hold the simulation's events.
+	 * @return A new {@link Simulation} ready to {@link #run()}.
+	 */
+	public static Simulation setup(SimulationParameters params, Grid grid, PEC pec) {
+		return setup(params, grid, pec, new RandomUtil());
+	}
+
+	/**
+	 * Builds a ready-to-run simulation that draws all its random numbers from the given
+	 * generator, so that a seeded generator reproduces the same run.
+	 *
+	 * @param params The {@link SimulationParameters} of the simulation.
+	 * @param grid The {@link Grid} built from {@code params}.
+	 * @param pec An empty {@link PEC} to hold the simulation's events.
+	 * @param random The {@link RandomUtil} of the simulation.
+	 * @return A new {@link Simulation} ready to {@link #run()}.
+	 */
+	public static Simulation setup(SimulationParameters params, Grid grid, PEC pec, RandomUtil random) {
+		// PopulationManager and Simulation_Context refer to each other, so the
+		// manager receives its context once the context exists
+		PopulationManager pm = new PopulationManager(null);
+		Simulation_Context context = new Simulation_Context(grid, pec, pm, params, random);
+		pm.setContext(context);
+
+		// Get the EventFactory from the context for creating events
+		EventFactory factory = context.getEventFactory();
+
+		// Create initial population and schedule their initial events
+		// 'nu' represents the initial number of individuals
+		for (int i = 0; i < params.getNu(); i++) {
+			Individual ind = new Individual(params.getStartPoint(), 0, 0, grid); // New individual starting at start point
+			// Set individual's death time based on a random exponential distribution (lambda = mu)
+			ind.setDeathTime(random.nextDelay(params.getMu()));
+			pm.add(ind); // Add individual to the population manager
+
+			// Schedule initial events for each individual
+			pec.addEvent(factory.createDeathEvent(ind, ind.getDeathTime()));
+			// Schedule initial move event based on random exponential distribution (lambda = delta)
+			pec.addEvent(factory.createMoveEvent(ind, random.nextDelay(params.getDelta())));
+			// Schedule initial reproduction event based on random exponential distribution (lambda = rho)
+			pec.addEvent(factory.createReproductionEvent(ind, random.nextDelay(params.getRho())));
+		}
+		return new Simulation(context);
+	}
+
 	/**
 	 * Runs the main simulation loop.
 	 * This method performs the following steps:
 	 * <ol>
 	 * <li>Prints initial simulation parameters.</li>
-	 * <li>Enters a loop to process events from the {@link PEC} in chronological order.</li>
+	 * <li>Enters a loop to process events from the {@link PEC} in chronological order, one
+	 * time slice (all the events scheduled for the same time) at a time.</li>
 	 * <li>Periodically prints observations (every {@code tau/20} time units).</li>
-	 * <li>Executes each event and updates the simulation time.</li>
+	 * <li>Updates the simulation time and executes each event of the slice.</li>
+	 * <li>Applies an epidemic whenever the population exceeds {@code nuMax}.</li>
 	 * <li>Continues until no more events are left or the simulation time exceeds {@code tau}.</li>
 	 * <li>Prints any remaining observations to reach 20 total observations.</li>
 	 * <li>Identifies and prints the "best fit" individual at the end of the simulation.</li>
 	 * </ol>
+	 * With {@link #setParallelism(int)} the moves of each slice run concurrently.
+	 * The progress of the loop is kept in fields, so a simulation restored from a checkpoint
+	 * continues where the checkpointed run was, without printing the input again.
+	 *
+	 * @throws UncheckedIOException If a checkpoint cannot be written.
 	 */
 	public void run() {
 		// 1) Print initial parameters (input echo)
-		printInputParameters(context.getParameters());
+		if (!iniciada) {
+			sink.inputParameters(context.getParameters());
+			iniciada = true;
+		}
 
 		// Retrieve key simulation parameters
 		int tau = context.getParameters().getTau(); // Total simulation time
+		int nuMax = context.getParameters().getNuMax(); // Maximum population size
 		// Calculate the interval for observations (20 observations over tau)
 		int obsInterval = tau / 20;
-		int nextObsTime = 0; // Time for the next observation
-		int obsNum = 0;      // Current observation number (0 to 20)
-		int events = 0;      // Counter for realized events
-		int currentTime = 0; // Current simulation time, updated by events
+		if (ficheiroCheckpoint != null) {
+			proximoCheckpoint = seguinteCheckpoint();
+		}
 
 		// 2) Main event execution loop
 		// Continues as long as there are events in the PEC
-		while (context.getPEC().hasEvents()) {
-			Event event = context.getPEC().getNextEvent();
-			if (event == null) break; // Should not happen if hasEvents() is true, but as a safeguard
-
-			currentTime = event.getTime(); // Advance simulation time to the current event's time
-
-			// **Inject current time into the simulation context**
-			context.setTempoAtual(currentTime);
-
-			// Print observations at scheduled intervals (0 to 20 total)
-			while (currentTime >= nextObsTime && obsNum <= 20) {
-				Individual best = findBestIndividual(); // Find the best individual for current observation
-				// Check if the best individual has reached the target destination
-				boolean hit = best != null && best.getLastPosition().equals(context.getDestino());
-				// Print the current observation's details
-				printObservation(obsNum, nextObsTime, events,
-						context.getPopulation().getALL().size(), // Total population size (alive + dead)
-						hit, best);
-				obsNum++; // Increment observation number
-				nextObsTime = obsNum * obsInterval; // Calculate time for the next observation
-			}
-
-			// Execute the current event and increment the event counter
-			event.execute(context);
-			events++;
-
-			// Terminate simulation if the current time exceeds the total simulation time (tau)
-			if (currentTime > tau) break;
-		}
+		runSlices(tau, nuMax, obsInterval);
 
 		// 3) Print any remaining observations up to 20, covering the time up to tau
 		// This loop ensures that all 20 observations are printed, even if the PEC runs out of events early
 		// or the simulation breaks due to currentTime > tau.
-		while (obsNum <= 20) {
+		while (numObservacao <= 20) {
 			Individual best = findBestIndividual();
-			boolean hit = best != null && best.getLastPosition().equals(context.getDestino());
-			printObservation(obsNum, obsNum * obsInterval, events, // Use obsNum * obsInterval for time for consistency
-					context.getPopulation().getALL().size(),
+			boolean hit = best != null && best.isAt(context.getDestino());
+			printObservation(numObservacao, numObservacao * obsInterval, realizados, // Use obsNum * obsInterval for time for consistency
+					context.getPopulation().size(),
 					hit, best);
-			obsNum++;
+			numObservacao++;
 		}
 
 		// 4) Print the final "Best fit individual" at the very end of the simulation
 		Individual best = findBestIndividual();
-		printBestFitIndividual(best);
+		sink.bestFit(best, best != null ? best.getCost(context.getGrid()) : 0);
+		sink.flush();
 	}
 
 	/**
-	 * Prints the initial simulation parameters to the console.
-	 * This includes grid dimensions, start/end points, counts of special zones/obstacles,
-	 * and various simulation constants. Special cost zones and obstacles are listed
-	 * in a detailed format if present.
+	 * The main loop: executes the events one time slice at a time, each slice after the
+	 * observations and checkpoint due before it, until the calendar is empty or an event
+	 * beyond {@code tau} has been executed. The time is injected into the context and the
+	 * observations are checked once per slice; beyond {@code tau} only the first event is
+	 * executed, as in a loop over single events.
 	 *
-	 * @param params The {@link SimulationParameters} object containing all initial settings.
+	 * @param tau The end time of the simulation.
+	 * @param nuMax The maximum size of the population.
+	 * @param obsInterval The time between observations.
 	 */
-	private void printInputParameters(SimulationParameters params) {
-		System.out.printf("%d %d %d %d %d %d %d %d %d %d %d %d %d %d %d%n",
-				params.getN(), params.getM(),
-				params.getStartPoint().getX(), params.getStartPoint().getY(),
-				params.getEndPoint().getX(), params.getEndPoint().getY(),
-				params.getSpecialCostZones().size(), params.getObstacles().size(),
-				params.getTau(), params.getNu(), params.getNuMax(),
-				params.getK(), (int) params.getMu(), (int) params.getDelta(), (int) params.getRho());
-
-		if (!params.getSpecialCostZones().isEmpty()) {
-			System.out.println("special cost zones:");
-			for (Special_Cost_Zone zone : params.getSpecialCostZones()) {
-				System.out.printf("%d %d %d %d %d%n",
-						zone.getInf().getX(), zone.getInf().getY(),
-						zone.getSup().getX(), zone.getSup().getY(),
-						zone.getCusto());
+	private void runSlices(int tau, int nuMax, int obsInterval) {
+		PEC pec = context.getPEC();
+		// With parallelism the moves of each slice are spread over a pool
+		ForkJoinPool pool = paralelismo > 1 ? new ForkJoinPool(paralelismo) : null;
+		ParallelSliceExecutor executor = paralelismo > 0 ? new ParallelSliceExecutor(context, pool) : null;
+		List<Event> fatia = new ArrayList<>();
+		try {
+			while (pec.hasEvents()) {
+				// Checkpoint the state between slices once the next slice reaches the checkpoint time
+				if (ficheiroCheckpoint != null && pec.peekNextEvent() >= proximoCheckpoint) {
+					sink.flush();
+					Checkpoint.write(this, ficheiroCheckpoint);
+					proximoCheckpoint = seguinteCheckpoint();
+				}
+
+				int currentTime = (int) pec.peekNextEvent(); // Advance simulation time to the next slice
+
+				// **Inject current time into the simulation context**
+				context.setTempoAtual(currentTime);
+
+				// Print observations at scheduled intervals (0 to 20 total)
+				observe(currentTime, obsInterval);
+
+				if (currentTime <= tau) {
+					pec.drain(currentTime, fatia);
+				} else {
+					fatia.add(pec.getNextEvent());
+				}
+				realizados += executor != null ? executor.execute(fatia) : executeSlice(fatia, nuMax);
+				fatia.clear();
+
+				// Terminate simulation if the current time exceeds the total simulation time (tau)
+				if (currentTime > tau) break;
 			}
+		} finally {
+			if (pool != null) pool.shutdown();
 		}
-		if (!params.getObstacles().isEmpty()) {
-			System.out.println("obstacles:");
-			for (Coordenadas c : params.getObstacles()) {
-				System.out.printf("%d %d%n", c.getX(), c.getY());
+	}
+
+	/**
+	 * Executes the events of a time slice one at a time, in order.
+	 *
+	 * @param fatia The events of the slice, removed from the calendar.
+	 * @param nuMax The maximum size of the population.
+	 * @return The number of events executed.
+	 */
+	private int executeSlice(List<Event> fatia, int nuMax) {
+		EventFactory factory = context.getEventFactory();
+		PopulationManager pm = context.getPopulation();
+		int n = 0;
+		for (Event event : fatia) {
+			// An earlier event of the slice may have cancelled this one
+			if (!event.isCancelled()) {
+				event.execute(context);
+				n++;
+				// An epidemic strikes whenever the population outgrows its maximum size
+				if (pm.size() > nuMax) {
+					pm.applyEpidemic();
+				}
 			}
+			// Nothing refers to the event any more, so it can be reused
+			factory.recycle(event);
+		}
+		return n;
+	}
+
+	/**
+	 * Writes the observations due at or before the given time.
+	 *
+	 * @param currentTime The current simulation time.
+	 * @param obsInterval The time between observations.
+	 */
+	private void observe(int currentTime, int obsInterval) {
+		while (currentTime >= proximaObservacao && numObservacao <= 20) {
+			Individual best = findBestIndividual(); // Find the best individual for current observation
+			// Check if the best individual has reached the target destination
+			boolean hit = best != null && best.isAt(context.getDestino());
+			// Print the current observation's details
+			printObservation(numObservacao, proximaObservacao, realizados,
+					context.getPopulation().size(), // Total population size (alive + dead)
+					hit, best);
+			numObservacao++; // Increment observation number
+			proximaObservacao = numObservacao * obsInterval; // Calculate time for the next observation
 		}
-		System.out.println();
-		System.out.println();
 	}
 
 	/**
-	 * Prints the details for a specific observation point during the simulation.
+	 * Returns the first checkpoint time after the time of the next event.
+	 *
+	 * @return The time of the next checkpoint.
+	 */
+	private int seguinteCheckpoint() {
+		int proximo = (int) context.getPEC().peekNextEvent();
+		return (Math.max(proximo, 0) / intervaloCheckpoint + 1) * intervaloCheckpoint;
+	}
+
+	/**
+	 * Writes the details for a specific observation point during the simulation.
 	 * This includes the observation number, current time, number of events processed so far,
 	 * current population size, whether the target has been reached, and details of the best
 	 * fit individual (its path and either cost if target reached, or comfort).
@@ -156,54 +412,13 @@ public class Simulation {
 	 */
 	private void printObservation(int obsNum, int time, int events,
 								  int popSize, boolean hit, Individual best) {
-		System.out.println("Observation " + obsNum + ":");
-		System.out.println("Present time: " + time);
-		System.out.println("Number of realized events: " + events);
-		System.out.println("Population size: " + popSize);
-		System.out.println("Final point has been hit: " + (hit ? "yes" : "no"));
-		System.out.print("Path of the best fit individual: ");
+		int cost = 0;
+		double comfort = 0;
 		if (best != null) {
-			System.out.print("[");
-			List<Coordenadas> path = best.getPath();
-			for (int i = 0; i < path.size(); i++) {
-				System.out.print(path.get(i));
-				if (i < path.size() - 1) System.out.print(", ");
-			}
-			System.out.println("]");
-			if (hit) {
-				System.out.println("Cost/Comfort: " + best.getCost(context.getGrid()));
-			} else {
-				System.out.println("Cost/Comfort: " +
-						String.format("%.6f",
-								best.getComfort(context.getGrid(), context.getDestino(), context.getK())
-						));
-			}
-		} else {
-			System.out.println("[]");
-			System.out.println("Cost/Comfort: 0"); // If no best individual, output 0 for cost/comfort
-		}
-		System.out.println();
-	}
-
-	/**
-	 * Prints the final "best fit" individual identified at the end of the simulation.
-	 * This includes its path and the final cost.
-	 *
-	 * @param best The {@link Individual} identified as the best fit at the end, or {@code null} if none.
-	 */
-	private void printBestFitIndividual(Individual best) {
-		System.out.print("Best fit individual: ");
-		if (best != null) {
-			System.out.print("[");
-			List<Coordenadas> path = best.getPath();
-			for (int i = 0; i < path.size(); i++) {
-				System.out.print(path.get(i));
-				if (i < path.size() - 1) System.out.print(", ");
-			}
-			System.out.println("] with cost " + best.getCost(context.getGrid()));
-		} else {
-			System.out.println("[] with cost 0"); // If no best individual found, output 0 cost
+			cost = best.getCost(context.getGrid());
+			comfort = best.getComfort(context.getComfortEngine());
 		}
+		sink.observation(obsNum, time, events, popSize, hit, best, cost, comfort);
 	}
 
 	/**
@@ -220,38 +435,7 @@ public class Simulation {
 	 * or {@code null} if the population is empty.
 	 */
 	private Individual findBestIndividual() {
-		List<Individual> all = context.getPopulation().getALL();
-		Coordenadas destino = context.getDestino();
-		Grid grid = context.getGrid();
-		int k = context.getK();
-
-		// 1) First, find the individual that has reached the destination with the lowest cost
-		Individual bestReached = null;
-		int minCost = Integer.MAX_VALUE;
-		for (Individual ind : all) {
-			if (ind.getLastPosition().equals(destino)) {
-				int cost = ind.getCost(grid);
-				if (cost < minCost) {
-					minCost = cost;
-					bestReached = ind;
-				}
-			}
-		}
-		// If at least one individual reached the destination, return the best among them
-		if (bestReached != null) return bestReached;
-
-		// 2) If no individual reached the destination, find the one with the highest comfort
-		Individual bestComfort = null;
-		double maxComfort = -1.0; // Initialize with a value lower than any possible comfort
-		for (Individual ind : all) {
-			// Calculate comfort for individuals that haven't reached the destination
-			double comfort = ind.getComfort(grid, destino, k);
-			if (comfort > maxComfort) {
-				maxComfort = comfort;
-				bestComfort = ind;
-			}
-		}
-		// Return the individual with the highest comfort, or null if population is empty
-		return bestComfort;
+		// The population keeps both rankings up to date, so this is a constant-time lookup
+		return context.getPopulation().getBestFit();
 	}
 }
\ No newline at end of file
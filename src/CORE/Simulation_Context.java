@@ -1,10 +1,11 @@
 package CORE;
 
-import java.util.List;
 import MODE.Grid;
 import MODE.Coordenadas;
+import MODE.ComfortEngine;
 import MODE.Individual;
 import io.SimulationParameters; // Assuming SimulationParameters is in the 'io' package
+import UTIL.RandomUtil;
 
 /**
  * Represents the central context for the simulation, holding references
@@ -33,6 +34,14 @@ public class Simulation_Context {
 	 * An {@link EventFactory} used to create various types of simulation events.
 	 */
 	private EventFactory eventFactory;
+	/**
+	 * The source of every random number drawn by the simulation.
+	 */
+	private RandomUtil random;
+	/**
+	 * The precomputed comfort formula for this simulation's grid, destination and k.
+	 */
+	private ComfortEngine comfortEngine;
 	/**
 	 * The current simulated time. This value is updated as events are processed.
 	 */
@@ -47,11 +56,27 @@ public class Simulation_Context {
 	 * @param parameters The {@link SimulationParameters} for the simulation.
 	 */
 	public Simulation_Context(Grid grid, PEC pec, PopulationManager population, SimulationParameters parameters) {
+		this(grid, pec, population, parameters, new RandomUtil());
+	}
+
+	/**
+	 * Constructs a new Simulation_Context that draws its random numbers from the given generator.
+	 * A seeded generator makes the simulation reproducible.
+	 *
+	 * @param grid The {@link Grid} instance for the simulation.
+	 * @param pec The {@link PEC} instance for managing events.
+	 * @param population The {@link PopulationManager} instance for managing individuals.
+	 * @param parameters The {@link SimulationParameters} for the simulation.
+	 * @param random The {@link RandomUtil} used by all the random decisions of the simulation.
+	 */
+	public Simulation_Context(Grid grid, PEC pec, PopulationManager population, SimulationParameters parameters, RandomUtil random) {
 		this.grid = grid;
 		this.pec = pec;
 		this.population = population;
 		this.parameters = parameters;
-		this.eventFactory = new EventFactory(); // Initialize EventFactory within the context
+		this.eventFactory = new EventFactory(true); // Initialize EventFactory within the context, recycling executed events
+		this.random = random;
+		this.comfortEngine = new ComfortEngine(grid, parameters.getEndPoint(), parameters.getK());
 		this.tempoAtual = 0; // Simulation starts at time 0
 	}
 
@@ -80,6 +105,18 @@ public class Simulation_Context {
 	 * @return The event factory.
 	 */
 	public EventFactory getEventFactory() { return eventFactory; }
+	/**
+	 * Returns the random number generator of this simulation. Every random decision of
+	 * the simulation draws from it, so it must not be shared with another simulation.
+	 * @return The simulation's {@link RandomUtil}.
+	 */
+	public RandomUtil getRandom() { return random; }
+	/**
+	 * Returns the comfort engine of this simulation, which evaluates the comfort of
+	 * individuals with precomputed tables.
+	 * @return The simulation's {@link ComfortEngine}.
+	 */
+	public ComfortEngine getComfortEngine() { return comfortEngine; }
 	/**
 	 * Returns the current simulated time.
 	 * @return The current time.
@@ -151,33 +188,11 @@ public class Simulation_Context {
 	 * with the highest "comfort" level among all individuals.</li>
 	 * </ol>
 	 *
+	 * The population keeps its individuals ranked by both criteria, so this takes constant time.
+	 *
 	 * @return The {@link Individual} considered the best fit, or {@code null} if the population is empty.
 	 */
 	public Individual getBestFitIndividual() {
-		Coordenadas destino = getDestino();
-		List<Individual> all = population.getALL();
-
-		// Priority 1: Find the individual that reached the destination with the lowest cost
-		Individual melhorComDestino = null;
-		int melhorCusto = Integer.MAX_VALUE;
-		for (Individual i : all) {
-			if (i.getLastPosition().equals(destino)) {
-				int custo = i.getCost(grid);
-				if (custo < melhorCusto) {
-					melhorCusto = custo;
-					melhorComDestino = i;
-				}
-			}
-		}
-		// If an individual that reached the destination is found, return it
-		if (melhorComDestino != null) return melhorComDestino;
-
-		// Priority 2: If no individual reached the destination, return the one with the highest comfort
-		// Uses Java 8 Streams for concise maximum finding based on comfort
-		return all.stream()
-				.max((a, b) -> Double.compare(
-						a.getComfort(grid, destino, getK()), // Compare comfort of individual 'a'
-						b.getComfort(grid, destino, getK()))) // against individual 'b'
-				.orElse(null); // Return null if the population list is empty
+		return population.getBestFit();
 	}
 }
\ No newline at end of file
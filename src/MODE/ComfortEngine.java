@@ -0,0 +1,104 @@
+package MODE;
+
+/**
+ * Evaluates the comfort formula of {@link Individual#getComfort(Grid, Coordenadas, int)} for
+ * one simulation, whose grid, target and k never change, mostly from precomputed tables.
+ * <p>
+ * The comfort is the product of a path factor, which depends on the cost and length of the
+ * path, and a distance factor, which depends only on the Manhattan distance from the last
+ * vertex of the path to the target; both are clamped to {@code [0.001, 0.999]} and raised to
+ * the power k. The distance factor is precomputed for every distance a cell of the grid can
+ * be from the target. The path factor is almost always clamped, so the two clamped powers
+ * are precomputed too. The remaining values, which only paths of one cheap edge reach, are
+ * raised to k with {@link Math#pow}. Every value is thus computed exactly as
+ * {@link Individual#getComfort(Grid, Coordenadas, int)} computes it, to the last bit.
+ * <p>
+ * An engine is immutable once built and can be used by several threads.
+ */
+public final class ComfortEngine {
+	/** The lower bound of each factor before it is raised to k. */
+	private static final double MINIMO = 0.001;
+	/** The upper bound of each factor before it is raised to k. */
+	private static final double MAXIMO = 0.999;
+
+	/** The exponent k of the comfort formula. */
+	private final int k;
+	/** The highest edge cost of the grid. */
+	private final int maxCustoAresta;
+	/** The x-coordinate of the target. */
+	private final int alvoX;
+	/** The y-coordinate of the target. */
+	private final int alvoY;
+	/** The number of columns of the grid, to decode cell ids. */
+	private final int m;
+	/** {@code MINIMO} raised to k. */
+	private final double minimoK;
+	/** {@code MAXIMO} raised to k. */
+	private final double maximoK;
+	/** The distance factor raised to k, indexed by the Manhattan distance to the target. */
+	private final double[] fatorDistancia;
+
+	/**
+	 * Builds the engine for a grid, a target and an exponent.
+	 *
+	 * @param grid The {@link Grid} of the simulation; its edge costs must not change afterwards.
+	 * @param target The {@link Coordenadas} of the target destination.
+	 * @param k The weighting factor of the comfort calculation.
+	 */
+	public ComfortEngine(Grid grid, Coordenadas target, int k) {
+		this.k = k;
+		this.maxCustoAresta = grid.getMaxCustoAresta();
+		this.alvoX = target.getX();
+		this.alvoY = target.getY();
+		this.m = grid.getM();
+		this.minimoK = Math.pow(MINIMO, k);
+		this.maximoK = Math.pow(MAXIMO, k);
+
+		// The farthest cell from the target is one of the corners of the grid
+		int n = grid.getN();
+		int maxDist = Math.max(Math.abs(1 - alvoX), Math.abs(n - alvoX))
+				+ Math.max(Math.abs(1 - alvoY), Math.abs(m - alvoY));
+		this.fatorDistancia = new double[maxDist + 1];
+		for (int d = 0; d <= maxDist; d++) {
+			double part2 = 1.0 - ((double) d / (n + m + 1));
+			fatorDistancia[d] = Math.pow(Math.max(MINIMO, Math.min(MAXIMO, part2)), k);
+		}
+	}
+
+	/**
+	 * Returns the comfort of an individual that moves on this engine's grid.
+	 *
+	 * @param ind The {@link Individual}.
+	 * @return The comfort of the individual's current path.
+	 */
+	public double comfort(Individual ind) {
+		return comfort(ind.getPathEnd().getCusto(), ind.getLength(), ind.getLastCell());
+	}
+
+	/**
+	 * Returns the comfort of a path with the given cost and length that ends at the given cell.
+	 *
+	 * @param cost The total cost of the path.
+	 * @param length The number of edges of the path.
+	 * @param cell The cell id of the last vertex of the path.
+	 * @return The comfort of the path.
+	 */
+	public double comfort(int cost, int length, int cell) {
+		int dist = Math.abs(cell / m + 1 - alvoX) + Math.abs(cell % m + 1 - alvoY);
+		return fatorCaminho(cost, length) * fatorDistancia[dist];
+	}
+
+	/**
+	 * Returns the path factor of the comfort, raised to k.
+	 *
+	 * @param cost The total cost of the path.
+	 * @param length The number of edges of the path.
+	 * @return The clamped path factor raised to k.
+	 */
+	private double fatorCaminho(int cost, int length) {
+		double part1 = (1.0 - cost - length + 2) / ((maxCustoAresta - 1.0) * length + 3);
+		if (part1 <= MINIMO) return minimoK;
+		if (part1 >= MAXIMO) return maximoK;
+		return Math.pow(part1, k);
+	}
+}
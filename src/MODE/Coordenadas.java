@@ -8,9 +8,9 @@ package MODE;
  */
 public class Coordenadas {
 	/** The x-coordinate of the point. */
-	private int x;
+	private final int x;
 	/** The y-coordinate of the point. */
-	private int y;
+	private final int y;
 
     /**
      * Constructs a new Coordenadas object with the specified x and y coordinates.
@@ -73,10 +73,12 @@ public class Coordenadas {
     /**
      * Returns a hash code value for the object. This method is supported for the benefit
      * of hash tables such as those provided by {@link java.util.HashMap}.
+     * The coordinates are packed into separate halves of the hash, so points of any grid
+     * up to 65535 x 65535 never collide.
      * @return A hash code value for this object.
      */
 	@Override
 	public int hashCode() {
-		return 31 * x + y;
+		return (x << 16) ^ y;
 	}
 }
@@ -8,39 +8,128 @@ import java.util.*;
  * This class manages the grid's properties and provides methods to query
  * its state, such as checking for obstacles, determining movement costs,
  * and finding valid adjacent moves.
+ * <p>
+ * A grid is immutable: its obstacles and special cost zones are given to the constructor,
+ * which precomputes its edge costs and valid moves into read-only primitive tables. Every
+ * field is final and nothing is written after construction, so a grid can be shared by any
+ * number of concurrent simulations without synchronisation, however it reaches them.
  */
 public class Grid {
+	/** Direction index of a move towards y + 1 (North). */
+	public static final int NORTE = 0;
+	/** Direction index of a move towards x + 1 (East). */
+	public static final int ESTE = 1;
+	/** Direction index of a move towards y - 1 (South). */
+	public static final int SUL = 2;
+	/** Direction index of a move towards x - 1 (West). */
+	public static final int OESTE = 3;
+	/** The x offset of each direction, indexed by direction. */
+	private static final int[] DX = {0, 1, 0, -1};
+	/** The y offset of each direction, indexed by direction. */
+	private static final int[] DY = {1, 0, -1, 0};
+
 	/**
 	 * The number of rows in the grid (n).
 	 */
-	private int n; // linhas
+	private final int n; // linhas
 	/**
 	 * The number of columns in the grid (m).
 	 */
-	private int m; // colunas
+	private final int m; // colunas
+	/**
+	 * The change in cell id caused by a move in each direction, indexed by direction.
+	 */
+	private final int[] deslocamentoCelula;
 	/**
-	 * A set of {@link Coordenadas} representing points on the grid that are obstacles.
-	 * Movement through an obstacle is not permitted.
+	 * A dense bitset of the points on the grid that are obstacles, indexed by cell id
+	 * (see {@link #getCellId(int, int)}). Movement through an obstacle is not permitted.
 	 */
-	private Set<Coordenadas> obstacles;
+	private final BitSet obstacles;
 	/**
-	 * A list of {@link Special_Cost_Zone} objects, each defining an area
+	 * An unmodifiable list of {@link Special_Cost_Zone} objects, each defining an area
 	 * where movement edges have a cost higher than the default.
 	 */
-	private List<Special_Cost_Zone> costZones;
+	private final List<Special_Cost_Zone> costZones;
+	/**
+	 * Precomputed cost of every edge between (x, y) and (x + 1, y), stored at the cell id
+	 * of (x, y) as a position in {@link #custosDistintos}.
+	 * {@code null} if the edge costs could not be precomputed.
+	 */
+	private final byte[] custoArestaX;
+	/**
+	 * Precomputed cost of every edge between (x, y) and (x, y + 1), stored at the cell id
+	 * of (x, y) as a position in {@link #custosDistintos}.
+	 * {@code null} if the edge costs could not be precomputed.
+	 */
+	private final byte[] custoArestaY;
+	/**
+	 * The distinct edge costs of the grid in ascending order, starting with the default cost 1.
+	 * The precomputed edge tables store positions in this array, so a larger position always
+	 * means a larger cost. {@code null} if the zones define too many distinct costs.
+	 */
+	private final int[] custosDistintos;
+	/**
+	 * The highest edge cost of the grid, returned by {@link #getMaxCustoAresta()}.
+	 */
+	private final int maxCustoAresta;
+	/**
+	 * Precomputed bitmask of the valid moves from each cell (see {@link #getValidMoveMask(int, int)}),
+	 * indexed by cell id.
+	 */
+	private final byte[] movimentos;
 
 	/**
-	 * Constructs a new Grid with the specified dimensions.
-	 * Initializes the grid with no obstacles and no special cost zones.
+	 * Constructs a new Grid with the specified dimensions, no obstacles and no special cost zones.
 	 *
 	 * @param n The number of rows in the grid. Must be a positive integer.
 	 * @param m The number of columns in the grid. Must be a positive integer.
 	 */
 	public Grid(int n, int m) {
+		this(n, m, List.of(), List.of());
+	}
+
+	/**
+	 * Constructs a new Grid with the specified dimensions, obstacles and special cost zones,
+	 * and precomputes its edge costs and the valid moves from every cell.
+	 * Obstacles outside the grid cannot be reached anyway and are ignored.
+	 * <p>
+	 * Each edge is stored as one byte indexing the table of distinct costs. If the zones define
+	 * more than 255 distinct costs above the default, the edge tables are not built and edge
+	 * costs are computed from the zones on every query.
+	 *
+	 * @param n The number of rows in the grid. Must be a positive integer.
+	 * @param m The number of columns in the grid. Must be a positive integer.
+	 * @param obstacles The {@link Coordenadas} of the points that are obstacles.
+	 * @param costZones The {@link Special_Cost_Zone special cost zones} of the grid.
+	 */
+	public Grid(int n, int m, Collection<Coordenadas> obstacles, Collection<Special_Cost_Zone> costZones) {
 		this.n = n;
 		this.m = m;
-		this.obstacles = new HashSet<>();
-		this.costZones = new ArrayList<>();
+		this.deslocamentoCelula = new int[] {1, m, -1, -m};
+		BitSet obstaculos = new BitSet(n * m);
+		for (Coordenadas c : obstacles) {
+			if (estaDentro(c)) obstaculos.set(getCellId(c));
+		}
+		this.obstacles = obstaculos;
+		this.costZones = List.copyOf(costZones);
+
+		int max = 1;
+		for (Special_Cost_Zone zone : this.costZones) {
+			max = Math.max(max, zone.getCusto());
+		}
+		this.maxCustoAresta = max;
+		this.custosDistintos = calcularCustosDistintos(this.costZones);
+		byte[][] arestas = custosDistintos != null ? calcularArestas() : null;
+		this.custoArestaX = arestas != null ? arestas[0] : null;
+		this.custoArestaY = arestas != null ? arestas[1] : null;
+
+		byte[] mascaras = new byte[n * m];
+		for (int x = 1; x <= n; x++) {
+			for (int y = 1; y <= m; y++) {
+				mascaras[getCellId(x, y)] = (byte) calcularMascara(x, y);
+			}
+		}
+		this.movimentos = mascaras;
 	}
 
 	/**
@@ -60,23 +149,154 @@ public class Grid {
 	}
 
 	/**
-	 * Adds an obstacle to the grid at the specified coordinates.
-	 * Once a coordinate is marked as an obstacle, movement through it is disallowed.
+	 * Returns the cell id of the point (x, y): a dense index in {@code [0, n * m)} used as a
+	 * compact, allocation-free representation of points inside the grid.
 	 *
-	 * @param c The {@link Coordenadas} of the point to be marked as an obstacle.
+	 * @param x The x-coordinate, between 1 and n.
+	 * @param y The y-coordinate, between 1 and m.
+	 * @return The cell id {@code (x - 1) * m + (y - 1)}.
 	 */
-	public void addObstacle(Coordenadas c) {
-		obstacles.add(c);
+	public int getCellId(int x, int y) {
+		return (x - 1) * m + (y - 1);
 	}
 
 	/**
-	 * Adds a special cost zone to the grid.
-	 * Edges within or crossing these zones may have a higher movement cost.
+	 * Returns the cell id of a point inside the grid.
 	 *
-	 * @param zone The {@link Special_Cost_Zone} to add to the grid.
+	 * @param c The {@link Coordenadas} of the point.
+	 * @return The cell id of the point.
 	 */
-	public void addSpecialCostZone(Special_Cost_Zone zone) {
-		costZones.add(zone);
+	public int getCellId(Coordenadas c) {
+		return getCellId(c.getX(), c.getY());
+	}
+
+	/**
+	 * Returns the x-coordinate of a cell.
+	 * @param cell The cell id.
+	 * @return The x-coordinate of the cell.
+	 */
+	public int getCellX(int cell) {
+		return cell / m + 1;
+	}
+
+	/**
+	 * Returns the y-coordinate of a cell.
+	 * @param cell The cell id.
+	 * @return The y-coordinate of the cell.
+	 */
+	public int getCellY(int cell) {
+		return cell % m + 1;
+	}
+
+	/**
+	 * Materialises a cell as a {@link Coordenadas} object, for output and other
+	 * places that need the object form.
+	 *
+	 * @param cell The cell id.
+	 * @return The {@link Coordenadas} of the cell.
+	 */
+	public Coordenadas toCoordenadas(int cell) {
+		return new Coordenadas(getCellX(cell), getCellY(cell));
+	}
+
+	/**
+	 * Returns the cell reached by moving from a cell in the given direction.
+	 * The move must be valid (see {@link #getValidMoveMask(int)}).
+	 *
+	 * @param cell The starting cell id.
+	 * @param direcao The direction ({@link #NORTE}, {@link #ESTE}, {@link #SUL} or {@link #OESTE}).
+	 * @return The cell id of the neighbour.
+	 */
+	public int getNeighbour(int cell, int direcao) {
+		return cell + deslocamentoCelula[direcao];
+	}
+
+	/**
+	 * Returns the direction of the move between two neighbouring cells, the inverse of
+	 * {@link #getNeighbour(int, int)}.
+	 *
+	 * @param de The starting cell id.
+	 * @param para The cell id of a neighbour of {@code de}.
+	 * @return The direction ({@link #NORTE}, {@link #ESTE}, {@link #SUL} or {@link #OESTE}).
+	 * @throws IllegalArgumentException If the cells are not neighbours.
+	 */
+	public int getDirection(int de, int para) {
+		int dx = getCellX(para) - getCellX(de);
+		int dy = getCellY(para) - getCellY(de);
+		for (int d = 0; d < 4; d++) {
+			if (DX[d] == dx && DY[d] == dy) return d;
+		}
+		throw new IllegalArgumentException("As células " + de + " e " + para + " não são vizinhas");
+	}
+
+	/**
+	 * Returns the distinct edge costs of the given zones and the default cost 1, in ascending order.
+	 *
+	 * @param zones The special cost zones.
+	 * @return The distinct costs, or {@code null} if there are more than 256 of them.
+	 */
+	private static int[] calcularCustosDistintos(List<Special_Cost_Zone> zones) {
+		// Distinct costs in ascending order; index 0 is the default cost of an edge
+		TreeSet<Integer> distintos = new TreeSet<>();
+		distintos.add(1);
+		for (Special_Cost_Zone zone : zones) {
+			distintos.add(Math.max(1, zone.getCusto()));
+		}
+		if (distintos.size() > 256) return null;
+		int[] custos = new int[distintos.size()];
+		int i = 0;
+		for (int c : distintos) custos[i++] = c;
+		return custos;
+	}
+
+	/**
+	 * Computes the cost of every edge of the grid as a position in {@link #custosDistintos},
+	 * so that {@link #custoCaminho(Coordenadas, Coordenadas)} becomes a single table lookup
+	 * instead of a scan over all special cost zones.
+	 *
+	 * @return The tables of the edges along x and along y, in that order.
+	 */
+	private byte[][] calcularArestas() {
+		byte[] arestasX = new byte[n * m];
+		byte[] arestasY = new byte[n * m];
+		for (Special_Cost_Zone zone : costZones) {
+			int idx = Arrays.binarySearch(custosDistintos, Math.max(1, zone.getCusto()));
+			int x1 = zone.getInf().getX(), y1 = zone.getInf().getY();
+			int x2 = zone.getSup().getX(), y2 = zone.getSup().getY();
+			// Every affected edge has both ends on the perimeter, so it is enough to look
+			// at the perimeter points and their neighbours towards larger x and y.
+			for (int x = Math.max(1, x1); x <= Math.min(n, x2); x++) {
+				marcarArestas(zone, idx, x, y1, arestasX, arestasY);
+				marcarArestas(zone, idx, x, y2, arestasX, arestasY);
+			}
+			for (int y = Math.max(1, y1); y <= Math.min(m, y2); y++) {
+				marcarArestas(zone, idx, x1, y, arestasX, arestasY);
+				marcarArestas(zone, idx, x2, y, arestasX, arestasY);
+			}
+		}
+		return new byte[][] {arestasX, arestasY};
+	}
+
+	/**
+	 * Raises the precomputed cost of the edges leaving the perimeter point (x, y) towards
+	 * (x + 1, y) and (x, y + 1) to the given cost index, when those edges lie on the zone's perimeter.
+	 *
+	 * @param zone The {@link Special_Cost_Zone} being applied.
+	 * @param idx The index of the zone's cost in {@link #custosDistintos}.
+	 * @param x The x-coordinate of a perimeter point of the zone.
+	 * @param y The y-coordinate of a perimeter point of the zone.
+	 * @param arestasX The table of edges along x being built.
+	 * @param arestasY The table of edges along y being built.
+	 */
+	private void marcarArestas(Special_Cost_Zone zone, int idx, int x, int y, byte[] arestasX, byte[] arestasY) {
+		if (x < 1 || x > n || y < 1 || y > m) return;
+		int pos = getCellId(x, y);
+		if (x < n && zone.isOnPerimeter(x + 1, y) && idx > (arestasX[pos] & 0xFF)) {
+			arestasX[pos] = (byte) idx;
+		}
+		if (y < m && zone.isOnPerimeter(x, y + 1) && idx > (arestasY[pos] & 0xFF)) {
+			arestasY[pos] = (byte) idx;
+		}
 	}
 
 	/**
@@ -86,7 +306,7 @@ public class Grid {
 	 * @return {@code true} if the coordinates point to an obstacle, {@code false} otherwise.
 	 */
 	public boolean isObstacle(Coordenadas c) {
-		return obstacles.contains(c);
+		return estaDentro(c) && obstacles.get(getCellId(c));
 	}
 
 	/**
@@ -105,6 +325,14 @@ public class Grid {
 			throw new IllegalArgumentException("Coordenadas não são adjacentes.");
 		}
 
+		if (custosDistintos != null && estaDentro(from) && estaDentro(to)) {
+			// Both edge tables are indexed by the end with the smaller coordinate
+			int x = Math.min(from.getX(), to.getX());
+			int y = Math.min(from.getY(), to.getY());
+			byte[] arestas = from.getX() != to.getX() ? custoArestaX : custoArestaY;
+			return custosDistintos[arestas[getCellId(x, y)] & 0xFF];
+		}
+
 		int custoMax = 1;
 		for (Special_Cost_Zone zone : costZones) {
 			if (zone.afetaAresta(from, to)) {
@@ -114,6 +342,25 @@ public class Grid {
 		return custoMax;
 	}
 
+	/**
+	 * Returns the cost of moving between two adjacent cells, given by their cell ids.
+	 * With precomputed edge costs this is a single table lookup and allocates nothing.
+	 * The cells are not checked for adjacency.
+	 *
+	 * @param de The cell id of the starting point of the movement.
+	 * @param para The cell id of the ending point, adjacent to {@code de}.
+	 * @return The cost of traversing the edge between the two cells.
+	 */
+	public int custoAresta(int de, int para) {
+		if (custosDistintos != null) {
+			int d = para - de;
+			// A change of m is a move along x (checked first, since m may be 1); otherwise it is along y
+			byte[] arestas = d == m || d == -m ? custoArestaX : custoArestaY;
+			return custosDistintos[arestas[Math.min(de, para)] & 0xFF];
+		}
+		return custoCaminho(toCoordenadas(de), toCoordenadas(para));
+	}
+
 	/**
 	 * Returns the maximum edge cost present in any of the special cost zones
 	 * defined on the grid. If no special cost zones exist, the default edge cost of 1 is returned.
@@ -121,17 +368,16 @@ public class Grid {
 	 * @return The highest cost of any special cost zone edge.
 	 */
 	public int getMaxCustoAresta() {
-		int max = 1;
-		for (Special_Cost_Zone zone : costZones) {
-			max = Math.max(max, zone.getCusto());
-		}
-		return max;
+		return maxCustoAresta;
 	}
 
 	/**
 	 * Returns a list of all valid adjacent {@link Coordenadas} from a given current coordinate.
 	 * A move is considered valid if it remains within the grid boundaries and does not
-	 * lead to an obstacle.
+	 * lead to an obstacle. Moves are listed in direction order (North, East, South, West).
+	 * <p>
+	 * This method allocates the returned list; hot paths should use
+	 * {@link #getValidMoveMask(int, int)} instead.
 	 *
 	 * @param atual The current {@link Coordenadas} from which to find valid moves.
 	 * @return A {@link List} of {@link Coordenadas} representing all accessible and non-obstacle adjacent points.
@@ -140,25 +386,89 @@ public class Grid {
 		List<Coordenadas> moves = new ArrayList<>();
 		int x = atual.getX();
 		int y = atual.getY();
-
-		// Define directions for movement (North, East, South, West)
-		int[][] direcoes = {
-				{0, 1},   // Norte (y+1)
-				{1, 0},   // Este (x+1)
-				{0, -1},  // Sul (y-1)
-				{-1, 0}   // Oeste (x-1)
-		};
-
-		for (int[] d : direcoes) {
-			Coordenadas nova = new Coordenadas(x + d[0], y + d[1]);
-			if (estaDentro(nova) && !isObstacle(nova)) {
-				moves.add(nova);
+		int mask = getValidMoveMask(x, y);
+		for (int d = NORTE; d <= OESTE; d++) {
+			if ((mask & (1 << d)) != 0) {
+				moves.add(new Coordenadas(x + DX[d], y + DY[d]));
 			}
 		}
-
 		return moves;
 	}
 
+	/**
+	 * Returns the valid moves from the point (x, y) as a bitmask, without allocating.
+	 * Bit {@code d} is set when the move in direction {@code d} ({@link #NORTE}, {@link #ESTE},
+	 * {@link #SUL} or {@link #OESTE}) stays within the grid and does not lead to an obstacle.
+	 *
+	 * @param x The current x-coordinate.
+	 * @param y The current y-coordinate.
+	 * @return The bitmask of valid directions, {@code 0} if no move is possible.
+	 */
+	public int getValidMoveMask(int x, int y) {
+		return movimentos[getCellId(x, y)];
+	}
+
+	/**
+	 * Computes the bitmask of the valid moves from the point (x, y) from the obstacles,
+	 * to build the table read by {@link #getValidMoveMask(int, int)}.
+	 *
+	 * @param x The current x-coordinate.
+	 * @param y The current y-coordinate.
+	 * @return The bitmask of valid directions, as in {@link #getValidMoveMask(int, int)}.
+	 */
+	private int calcularMascara(int x, int y) {
+		int pos = getCellId(x, y);
+		int mask = 0;
+		if (y < m && !obstacles.get(pos + 1)) mask |= 1 << NORTE;
+		if (x < n && !obstacles.get(pos + m)) mask |= 1 << ESTE;
+		if (y > 1 && !obstacles.get(pos - 1)) mask |= 1 << SUL;
+		if (x > 1 && !obstacles.get(pos - m)) mask |= 1 << OESTE;
+		return mask;
+	}
+
+	/**
+	 * Returns the valid moves from a cell as a bitmask, without allocating.
+	 *
+	 * @param cell The cell id of the current position.
+	 * @return The bitmask of valid directions, as in {@link #getValidMoveMask(int, int)}.
+	 */
+	public int getValidMoveMask(int cell) {
+		return movimentos[cell];
+	}
+
+	/**
+	 * Returns the direction of the {@code i}-th set bit (counting from zero) of a move bitmask,
+	 * so that a move can be chosen uniformly among the valid ones with a single random index.
+	 *
+	 * @param mask A bitmask returned by {@link #getValidMoveMask(int, int)}.
+	 * @param i The index of the valid move, smaller than {@code Integer.bitCount(mask)}.
+	 * @return The direction of that move.
+	 */
+	public static int nthDirection(int mask, int i) {
+		for (; i > 0; i--) {
+			mask &= mask - 1; // Clear the lowest set bit
+		}
+		return Integer.numberOfTrailingZeros(mask);
+	}
+
+	/**
+	 * Returns the x offset of a move in the given direction.
+	 * @param direcao The direction ({@link #NORTE}, {@link #ESTE}, {@link #SUL} or {@link #OESTE}).
+	 * @return The change in x caused by the move.
+	 */
+	public static int getDX(int direcao) {
+		return DX[direcao];
+	}
+
+	/**
+	 * Returns the y offset of a move in the given direction.
+	 * @param direcao The direction ({@link #NORTE}, {@link #ESTE}, {@link #SUL} or {@link #OESTE}).
+	 * @return The change in y caused by the move.
+	 */
+	public static int getDY(int direcao) {
+		return DY[direcao];
+	}
+
 	/**
 	 * Checks if a given coordinate is within the boundaries of this grid.
 	 * Coordinates are 1-indexed (from 1 to n/m).
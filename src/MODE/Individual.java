@@ -1,9 +1,7 @@
 package MODE;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import MODE.Grid;
 import MODE.Coordenadas;
@@ -13,20 +11,24 @@ import MODE.Coordenadas;
  * can reproduce, and has a lifecycle defined by birth and death times.
  * Each individual maintains a path of visited coordinates and has associated
  * properties like cost and comfort of its path.
+ * <p>
+ * The path is a chain of immutable {@link PathNode}s holding packed cell ids of the
+ * individual's {@link Grid} (see {@link Grid#getCellId(int, int)}). A child references
+ * the node where its inherited prefix ends instead of copying it, so siblings and their
+ * parent share the common part of their paths. {@link Coordenadas} objects are only
+ * created when a position or the path is requested.
  */
 public class Individual {
 	/**
-	 * The list of {@link Coordenadas} representing the path traversed by the individual.
+	 * The last vertex of the path traversed by the individual; the rest of the path is
+	 * reached through {@link PathNode#getAnterior()}.
 	 */
-	private List<Coordenadas> path;
+	private PathNode ultimo;
 	/**
-	 * The current x-coordinate of the individual's position on the grid.
+	 * The {@link Grid} the individual moves on, used to price each new edge as it is added
+	 * and to translate cell ids into coordinates.
 	 */
-	private int x;
-	/**
-	 * The current y-coordinate of the individual's position on the grid.
-	 */
-	private int y;
+	private Grid grid;
 	/**
 	 * The simulated time at which this individual was "born" or created.
 	 */
@@ -36,14 +38,27 @@ public class Individual {
 	 */
 	private int deathTime;
 	/**
-	 * A reference to the parent individual, if this individual was created through reproduction.
-	 * Can be {@code null} for initial individuals.
+	 * The generation stamp of the individual's scheduled events. Events record the stamp
+	 * when they are created, and bumping it cancels every event still pending.
+	 */
+	private int eventEpoch;
+	/**
+	 * The position of this individual in the storage of the population that holds it,
+	 * or -1 if it does not belong to a population. It is maintained by the population,
+	 * which uses it to remove the individual in constant time.
+	 */
+	private int slot = -1;
+	/**
+	 * The identifier given to this individual when it joined a population, or -1 before.
+	 * Identifiers grow in the order individuals are added, so they break ties in the
+	 * population's rankings in favour of the oldest member.
 	 */
-	private Individual parent;
+	private int id = -1;
 	/**
-	 * A boolean flag indicating whether this individual has already reproduced.
+	 * The position of this individual in each ranking heap of its population, indexed by
+	 * heap number, or -1 where it is not in that heap. Maintained by the heaps themselves.
 	 */
-	private boolean reproduced;
+	private final int[] posicoesHeap = {-1, -1};
 
 	/**
 	 * Constructs a new Individual with a specified starting position, birth time, and death time.
@@ -52,16 +67,29 @@ public class Individual {
 	 * @param start The initial {@link Coordenadas} of the individual.
 	 * @param birth The simulated time of birth.
 	 * @param death The simulated time of death.
+	 * @param grid The {@link Grid} on which the individual moves.
 	 */
-	public Individual(Coordenadas start, int birth, int death) {
-		this.path = new ArrayList<>();
-		this.x = start.getX();
-		this.y = start.getY();
-		this.path.add(start);
+	public Individual(Coordenadas start, int birth, int death, Grid grid) {
+		this.grid = grid;
+		this.ultimo = new PathNode(grid.getCellId(start));
+		this.birthTime = birth;
+		this.deathTime = death;
+	}
+
+	/**
+	 * Constructs an individual whose path is the one ending at the given vertex, for instance
+	 * to restore an individual saved in a checkpoint. The path is shared, not copied.
+	 *
+	 * @param ultimo The last vertex of the individual's path.
+	 * @param birth The simulated time of birth.
+	 * @param death The simulated time of death.
+	 * @param grid The {@link Grid} on which the individual moves.
+	 */
+	public Individual(PathNode ultimo, int birth, int death, Grid grid) {
+		this.grid = grid;
+		this.ultimo = ultimo;
 		this.birthTime = birth;
 		this.deathTime = death;
-		this.parent = null;
-		this.reproduced = false;
 	}
 
 	/**
@@ -71,54 +99,100 @@ public class Individual {
 	 * @param start The initial {@link Coordenadas} of the child, which should be the last coordinate of the inherited path.
 	 * @param birth The simulated time of birth.
 	 * @param death The simulated time of death.
-	 * @param parent The parent {@link Individual} from whom this individual was reproduced.
+	 * @param parent The parent {@link Individual} from whom this individual was reproduced. The child
+	 * takes the parent's grid and keeps no reference to the parent, so dead ancestors can be reclaimed.
 	 * @param inheritedPath A {@link List} of {@link Coordenadas} representing the path inherited from the parent.
 	 */
 	public Individual(Coordenadas start, int birth, int death, Individual parent, List<Coordenadas> inheritedPath) {
-		this.path = new ArrayList<>(inheritedPath);
-		this.x = start.getX();
-		this.y = start.getY();
+		this.grid = parent.grid;
+		// Price the inherited edges once so later cost queries are O(1)
+		for (Coordenadas c : inheritedPath) {
+			acrescentar(grid.getCellId(c));
+		}
 		// Ensure the start position is included if not already the last one in the inherited path
-		if (this.path.isEmpty() || !this.path.get(this.path.size() - 1).equals(start)) {
-			this.path.add(start);
+		int inicio = grid.getCellId(start);
+		if (ultimo == null || ultimo.getCell() != inicio) {
+			acrescentar(inicio);
 		}
 		this.birthTime = birth;
 		this.deathTime = death;
-		this.parent = parent;
-		this.reproduced = false;
+	}
+
+	/**
+	 * Constructs a child whose path is the parent's path up to the given vertex. The vertices
+	 * and their accumulated costs are shared with the parent, not copied; no reference to the
+	 * parent itself is kept.
+	 *
+	 * @param parent The parent {@link Individual}.
+	 * @param fimPrefixo The last vertex of the inherited prefix of the parent's path.
+	 */
+	private Individual(Individual parent, PathNode fimPrefixo) {
+		this.grid = parent.grid;
+		this.ultimo = fimPrefixo; // Child starts at the end of inherited path
+		this.birthTime = 0;
+		this.deathTime = 0;
 	}
 
 	/**
 	 * Returns the current x-coordinate of the individual.
 	 * @return The x-coordinate.
 	 */
-	public int getX() { return x; }
+	public int getX() { return grid.getCellX(getLastCell()); }
 	/**
 	 * Returns the current y-coordinate of the individual.
 	 * @return The y-coordinate.
 	 */
-	public int getY() { return y; }
+	public int getY() { return grid.getCellY(getLastCell()); }
 	/**
 	 * Returns the current position of the individual as a {@link Coordenadas} object.
 	 * @return The current {@link Coordenadas}.
 	 */
-	public Coordenadas getCurrentPosition() { return new Coordenadas(x, y); }
+	public Coordenadas getCurrentPosition() { return getLastPosition(); }
 	/**
 	 * Returns the last position recorded in the individual's path.
 	 * @return The {@link Coordenadas} of the last visited point.
 	 */
-	public Coordenadas getLastPosition() { return path.get(path.size() - 1); }
+	public Coordenadas getLastPosition() { return grid.toCoordenadas(getLastCell()); }
+	/**
+	 * Returns the cell id of the last position recorded in the individual's path.
+	 * @return The cell id of the last visited point.
+	 */
+	public int getLastCell() { return ultimo.getCell(); }
+	/**
+	 * Checks whether the individual's last position is the given point, without allocating.
+	 * @param c The {@link Coordenadas} to compare with.
+	 * @return {@code true} if the individual is at {@code c}.
+	 */
+	public boolean isAt(Coordenadas c) { return getX() == c.getX() && getY() == c.getY(); }
 	/**
 	 * Returns the complete path traversed by the individual.
+	 * The list is built on each call from the packed path and is not backed by the individual.
 	 * @return A {@link List} of {@link Coordenadas} representing the individual's path.
 	 */
-	public List<Coordenadas> getPath() { return path; }
+	public List<Coordenadas> getPath() {
+		List<Coordenadas> path = new ArrayList<>(ultimo.getIndice() + 1);
+		for (int cell : ultimo.toCells()) {
+			path.add(grid.toCoordenadas(cell));
+		}
+		return path;
+	}
+	/**
+	 * Returns the last vertex of the individual's path, from which the whole path
+	 * can be walked without materialising it.
+	 * @return The last {@link PathNode} of the path.
+	 */
+	public PathNode getPathEnd() { return ultimo; }
+	/**
+	 * Returns the {@link Grid} the individual moves on.
+	 * @return The individual's grid.
+	 */
+	public Grid getGrid() { return grid; }
 	/**
 	 * Returns the length of the individual's path (number of edges traversed).
 	 * This is calculated as the number of coordinates in the path minus one.
 	 * @return The length of the path.
 	 */
-	public int getLength() { return path.size() - 1; }
+	public int getLength() { return ultimo.getIndice(); }
 	/**
 	 * Returns the simulated birth time of the individual.
 	 * @return The birth time.
@@ -139,55 +213,114 @@ public class Individual {
 	 * @param t The new death time.
 	 */
 	public void setDeathTime(int t) { this.deathTime = t; }
+	/**
+	 * Returns the generation stamp of the individual's scheduled events.
+	 * An event created with an older stamp has been cancelled.
+	 * @return The current event stamp.
+	 */
+	public int getEventEpoch() { return eventEpoch; }
+	/**
+	 * Cancels every event currently scheduled for this individual, typically when it is
+	 * removed from the population. The events stay in the event calendar and are
+	 * discarded when they reach its head.
+	 */
+	public void cancelPendingEvents() { eventEpoch++; }
+	/**
+	 * Returns the position of this individual in its population's storage.
+	 * @return The slot index, or -1 if the individual does not belong to a population.
+	 */
+	public int getSlot() { return slot; }
+	/**
+	 * Sets the position of this individual in its population's storage.
+	 * This is reserved for the population that holds the individual.
+	 * @param slot The new slot index, or -1 when the individual leaves the population.
+	 */
+	public void setSlot(int slot) { this.slot = slot; }
+	/**
+	 * Returns the identifier given to this individual by its population.
+	 * @return The identifier, or -1 if the individual never joined a population.
+	 */
+	public int getId() { return id; }
+	/**
+	 * Sets the identifier of this individual. This is reserved for the population that holds the individual.
+	 * @param id The identifier.
+	 */
+	public void setId(int id) { this.id = id; }
+	/**
+	 * Returns the position of this individual in one of its population's ranking heaps.
+	 * @param heap The number of the heap (0 or 1).
+	 * @return The position in the heap, or -1 if the individual is not in it.
+	 */
+	public int getHeapIndex(int heap) { return posicoesHeap[heap]; }
+	/**
+	 * Sets the position of this individual in one of its population's ranking heaps.
+	 * This is reserved for the heaps that hold the individual.
+	 * @param heap The number of the heap (0 or 1).
+	 * @param pos The new position, or -1 when the individual leaves the heap.
+	 */
+	public void setHeapIndex(int heap, int pos) { posicoesHeap[heap] = pos; }
 
 	/**
 	 * Moves the individual to the specified next coordinate, updating its current position
-	 * and adding the new coordinate to its path. After moving, it attempts to remove
-	 * any cycles from the path to optimize it.
+	 * and adding the new coordinate to its path. If the coordinate was already visited, the
+	 * move closes a cycle and the path is instead truncated back to that earlier visit,
+	 * keeping the path simple.
 	 *
 	 * @param next The {@link Coordenadas} to which the individual will move.
 	 */
 	public void moveTo(Coordenadas next) {
-		this.x = next.getX();
-		this.y = next.getY();
-		this.path.add(next);
-		removeCycles();
+		moveTo(grid.getCellId(next));
 	}
 
 	/**
-	 * Optimizes the individual's path by removing any cycles (loops).
-	 * If a previously visited coordinate is encountered, the path is truncated
-	 * back to the first occurrence of that coordinate, effectively removing the loop.
-	 * This ensures the path is a simple path (no repeated vertices except for the start/end in a cycle).
-	 */
-	private void removeCycles() {
-		Set<Coordenadas> seen = new HashSet<>();
-		List<Coordenadas> newPath = new ArrayList<>();
-		for (Coordenadas coord : path) {
-			if (seen.contains(coord)) {
-				// If a cycle is detected, truncate the path back to the point of cycle
-				int idx = newPath.indexOf(coord);
-				newPath = new ArrayList<>(newPath.subList(0, idx + 1));
-			} else {
-				newPath.add(coord);
-				seen.add(coord);
-			}
+	 * Moves the individual to an adjacent cell, as {@link #moveTo(Coordenadas)} does.
+	 * <p>
+	 * The earlier visit of the cell, if any, is found with {@link PathNode#indexOf(int)} in
+	 * bounded time from the indices shared along the path, so the individual keeps no state
+	 * of its own besides the last vertex. A move that closes a cycle then takes time
+	 * proportional to the number of vertices removed.
+	 *
+	 * @param next The cell id to which the individual will move.
+	 */
+	public void moveTo(int next) {
+		int anterior = ultimo.indexOf(next);
+		if (anterior >= 0) {
+			// Cycle detected: drop every vertex visited after the first visit of 'next'
+			ultimo = ultimo.ancestral(anterior);
+			return;
 		}
-		this.path = newPath;
+		acrescentar(next);
 	}
 
 	/**
-	 * Calculates the total cost of the individual's current path on the given grid.
-	 * The cost is determined by summing the costs of individual edges, as provided by the grid.
+	 * Appends a cell to the end of the path, pricing the new edge.
+	 *
+	 * @param cell The cell id to append.
+	 */
+	private void acrescentar(int cell) {
+		if (ultimo == null) {
+			ultimo = new PathNode(cell);
+		} else {
+			ultimo = new PathNode(ultimo, cell, grid.custoAresta(ultimo.getCell(), cell));
+		}
+	}
+
+	/**
+	 * Returns the total cost of the individual's current path on the given grid.
+	 * For the grid the individual moves on, this is the cost maintained incrementally by
+	 * {@link #moveTo(int)}; for any other grid the edge costs are summed again.
 	 *
 	 * @param grid The {@link Grid} on which the path exists, used to determine edge costs.
 	 * @return The total accumulated cost of the path.
 	 */
 	public int getCost(Grid grid) {
+		if (grid == this.grid) {
+			return ultimo.getCusto();
+		}
 		int cost = 0;
-		for (int i = 1; i < path.size(); i++) {
-			Coordenadas a = path.get(i - 1);
-			Coordenadas b = path.get(i);
+		for (PathNode node = ultimo; node.getAnterior() != null; node = node.getAnterior()) {
+			Coordenadas a = this.grid.toCoordenadas(node.getAnterior().getCell());
+			Coordenadas b = this.grid.toCoordenadas(node.getCell());
 			cost += grid.custoCaminho(a, b);
 		}
 		return cost;
@@ -205,10 +338,34 @@ public class Individual {
 	 * @return The calculated comfort value, normalized between 0.001 and 0.999.
 	 */
 	public double getComfort(Grid grid, Coordenadas target, int k) {
-		int length = getLength();
-		int cost = getCost(grid);
+		int distToEnd = Math.abs(getX() - target.getX()) + Math.abs(getY() - target.getY());
+		return comfort(grid, getCost(grid), getLength(), distToEnd, k);
+	}
+
+	/**
+	 * Calculates the comfort of the individual's current path with a precomputed
+	 * {@link ComfortEngine}, which must have been built for the grid the individual moves on.
+	 *
+	 * @param engine The {@link ComfortEngine} of the simulation.
+	 * @return The calculated comfort value.
+	 */
+	public double getComfort(ComfortEngine engine) {
+		return engine.comfort(this);
+	}
+
+	/**
+	 * Evaluates the comfort formula for a path with the given cost, length and
+	 * distance from its last vertex to the target.
+	 *
+	 * @param grid The {@link Grid} context for the max edge cost and normalization.
+	 * @param cost The total cost of the path.
+	 * @param length The number of edges of the path.
+	 * @param distToEnd The Manhattan distance from the last vertex of the path to the target.
+	 * @param k A weighting factor applied to the comfort calculation.
+	 * @return The calculated comfort value.
+	 */
+	private static double comfort(Grid grid, int cost, int length, int distToEnd, int k) {
 		int maxEdgeCost = grid.getMaxCustoAresta();
-		int distToEnd = getLastPosition().getDistancia(target);
 
 		// Component related to path cost and length
 		// The original formula: (1 - cost - length + 2) / ((maxEdgeCost - 1) * length + 3)
@@ -229,8 +386,8 @@ public class Individual {
 
 	/**
 	 * Calculates the potential comfort of the individual's path if it were to move
-	 * to a hypothetical new position. This method temporarily adds the new position
-	 * to the path, calculates comfort, and then reverts the path and position.
+	 * to a hypothetical new position, by evaluating the comfort of the path extended
+	 * with that position without modifying the individual.
 	 * This is useful for evaluating potential next moves.
 	 *
 	 * @param grid The {@link Grid} context for path cost and max edge cost.
@@ -247,24 +404,9 @@ public class Individual {
 		int ty = (targetIndex % m) + 1;
 		Coordenadas target = new Coordenadas(tx, ty);
 
-		// Store current state to revert later
-		Coordenadas oldLast = getLastPosition(); // Note: This might not be directly used for revert unless path.remove is before this.
-												 // The x, y are directly set below, and path is removed by index.
-		int oldX = this.x;
-		int oldY = this.y;
-
-		// Temporarily add new position and update current coordinates
-		path.add(pos);
-		this.x = pos.getX();
-		this.y = pos.getY();
-
-		double comfort = getComfort(grid, target, k);
-
-		// Revert to original state
-		path.remove(path.size() - 1); // Remove the temporarily added position
-		this.x = oldX;
-		this.y = oldY;
-		return comfort;
+		// Evaluate the path extended by 'pos' without touching the individual's state
+		int cost = getCost(grid) + grid.custoCaminho(getLastPosition(), pos);
+		return comfort(grid, cost, getLength() + 1, pos.getDistancia(target), k);
 	}
 
 	/**
@@ -282,14 +424,23 @@ public class Individual {
 	 * @return A new {@link Individual} representing the child.
 	 */
 	public Individual reproduz(int k, Grid grid, Coordenadas target) {
-		double phi = getComfort(grid, target, k);
-		int vertices = path.size();
+		return reproduz(getComfort(grid, target, k));
+	}
+
+	/**
+	 * Creates a new child individual like {@link #reproduz(int, Grid, Coordenadas)}, given
+	 * the parent's comfort already computed by the caller.
+	 *
+	 * @param phi The comfort of this individual.
+	 * @return A new {@link Individual} representing the child.
+	 */
+	public Individual reproduz(double phi) {
+		int vertices = ultimo.getIndice() + 1;
 		// Formula for prefix count: 90% of parent's path + phi * 10% of remaining path
 		int prefixCount = (int) Math.ceil(vertices * 0.9 + vertices * 0.1 * phi);
 		// Ensure prefixCount is at least 1 and not more than the total vertices
 		prefixCount = Math.max(1, Math.min(prefixCount, vertices));
-		List<Coordenadas> inheritedPath = new ArrayList<>(path.subList(0, prefixCount));
-		Coordenadas start = inheritedPath.get(inheritedPath.size() - 1); // Child starts at the end of inherited path
-		return new Individual(start, 0, 0, this, inheritedPath);
+		// The child shares the prefix and its accumulated costs, so nothing is copied or re-priced
+		return new Individual(this, ultimo.ancestral(prefixCount - 1));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package MODE;
+
+import UTIL.IntIndexTrie;
+
+/**
+ * An immutable vertex of a path, linked to the vertex before it.
+ * A path is represented by its last node; because nodes never change, any number of
+ * paths can share a common prefix by pointing into the same chain, which is how a child
+ * {@link Individual} inherits its parent's path without copying it.
+ * <p>
+ * Each node caches its index in the path and the accumulated cost of the path up to it,
+ * so the length and cost of a path are available in constant time from its last node.
+ * <p>
+ * Every {@value #INTERVALO_INDICE}th node also holds a persistent {@link IntIndexTrie} from
+ * the cells of the path up to it to their indices, built from the one
+ * {@value #INTERVALO_INDICE} nodes back and sharing all but the few trie nodes it changed.
+ * {@link #indexOf(int)} finds a cell with fewer than {@value #INTERVALO_INDICE} steps back and
+ * one trie lookup, so cycle detection needs no per-individual state: like the nodes
+ * themselves, the indices are shared by every path through them.
+ */
+public final class PathNode {
+	/**
+	 * The distance between two nodes of a path that hold an index of its cells; a power of two.
+	 */
+	static final int INTERVALO_INDICE = 16;
+
+	/** The cell id of this vertex (see {@link Grid#getCellId(int, int)}). */
+	private final int cell;
+	/** The index of this vertex in the path; the first vertex has index 0. */
+	private final int indice;
+	/** The accumulated cost of the edges from the first vertex up to this one. */
+	private final int custo;
+	/** The previous vertex of the path, or {@code null} for the first vertex. */
+	private final PathNode anterior;
+	/**
+	 * The index of every cell of the path up to this vertex, if {@link #indice} is a
+	 * multiple of {@link #INTERVALO_INDICE}, or {@code null}.
+	 */
+	private final IntIndexTrie celulas;
+
+	/**
+	 * Constructs the first vertex of a path.
+	 *
+	 * @param cell The cell id of the vertex.
+	 */
+	public PathNode(int cell) {
+		this.cell = cell;
+		this.indice = 0;
+		this.custo = 0;
+		this.anterior = null;
+		this.celulas = IntIndexTrie.EMPTY.putAll(new long[] {(long) cell << 32}, 1);
+	}
+
+	/**
+	 * Constructs a vertex that extends the path ending at {@code anterior}.
+	 *
+	 * @param anterior The previous vertex of the path.
+	 * @param cell The cell id of the new vertex.
+	 * @param custoAresta The cost of the edge from {@code anterior} to the new vertex.
+	 */
+	public PathNode(PathNode anterior, int cell, int custoAresta) {
+		this.cell = cell;
+		this.indice = anterior.indice + 1;
+		this.custo = anterior.custo + custoAresta;
+		this.anterior = anterior;
+		this.celulas = (indice & (INTERVALO_INDICE - 1)) == 0 ? indexar() : null;
+	}
+
+	/**
+	 * Builds the index of the path up to this vertex from the index of the vertex
+	 * {@link #INTERVALO_INDICE} steps back and the cells after it.
+	 *
+	 * @return The index of the cells of the path.
+	 */
+	private IntIndexTrie indexar() {
+		long[] pares = new long[INTERVALO_INDICE];
+		PathNode node = this;
+		for (int i = 0; i < INTERVALO_INDICE; i++) {
+			pares[i] = (long) node.cell << 32 | node.indice;
+			node = node.anterior;
+		}
+		return node.celulas.putAll(pares, INTERVALO_INDICE);
+	}
+
+	/**
+	 * Returns the cell id of this vertex.
+	 * @return The cell id.
+	 */
+	public int getCell() {
+		return cell;
+	}
+
+	/**
+	 * Returns the index of this vertex in the path, which is also the length
+	 * (number of edges) of the path ending here.
+	 * @return The index of the vertex.
+	 */
+	public int getIndice() {
+		return indice;
+	}
+
+	/**
+	 * Returns the accumulated cost of the path ending at this vertex.
+	 * @return The cost of the path up to this vertex.
+	 */
+	public int getCusto() {
+		return custo;
+	}
+
+	/**
+	 * Returns the previous vertex of the path.
+	 * @return The previous {@link PathNode}, or {@code null} for the first vertex.
+	 */
+	public PathNode getAnterior() {
+		return anterior;
+	}
+
+	/**
+	 * Returns the vertex with the given index on the path ending at this vertex,
+	 * walking back {@code getIndice() - indice} links.
+	 *
+	 * @param indice The index of the wanted vertex, between 0 and {@link #getIndice()}.
+	 * @return The {@link PathNode} at that index.
+	 */
+	public PathNode ancestral(int indice) {
+		PathNode node = this;
+		while (node.indice > indice) {
+			node = node.anterior;
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the index of the vertex at a given cell on the path ending at this vertex.
+	 * The path must be simple, as the paths of individuals are. This walks back at most
+	 * {@link #INTERVALO_INDICE} - 1 vertices to the last one holding an index of the path,
+	 * and looks the cell up in that index.
+	 *
+	 * @param cell The cell id to look for.
+	 * @return The index of the vertex at {@code cell}, or -1 if the path does not visit it.
+	 */
+	public int indexOf(int cell) {
+		PathNode node = this;
+		while (node.celulas == null) {
+			if (node.cell == cell) return node.indice;
+			node = node.anterior;
+		}
+		return node.celulas.get(cell, -1);
+	}
+
+	/**
+	 * Returns the cell ids of the path ending at this vertex, from the first vertex to this one.
+	 * @return A new array with the cell ids of the path.
+	 */
+	public int[] toCells() {
+		int[] cells = new int[indice + 1];
+		for (PathNode node = this; node != null; node = node.anterior) {
+			cells[node.indice] = node.cell;
+		}
+		return cells;
+	}
+}
@@ -10,15 +10,15 @@ public class Special_Cost_Zone {
 	/**
 	 * The {@link Coordenadas} of the inferior-left corner of the special cost zone.
 	 */
-	private Coordenadas cantoInferior;
+	private final Coordenadas cantoInferior;
 	/**
 	 * The {@link Coordenadas} of the superior-right corner of the special cost zone.
 	 */
-	private Coordenadas cantoSuperior;
+	private final Coordenadas cantoSuperior;
 	/**
 	 * The cost associated with moving along an edge that is part of this special cost zone's perimeter.
 	 */
-	private int custo;
+	private final int custo;
 
 	/**
 	 * Constructs a new Special_Cost_Zone with specified corner coordinates and cost.
@@ -98,15 +98,24 @@ public class Special_Cost_Zone {
 
 	/**
 	 * Checks if a given coordinate lies on the perimeter (border) of this special cost zone.
-	 * This means the coordinate's x or y value must match one of the boundary values of the zone
-	 * (x1, x2, y1, y2) while also being within the other dimension's range.
 	 *
 	 * @param c The {@link Coordenadas} to check.
 	 * @return {@code true} if the coordinate is on the perimeter, {@code false} otherwise.
 	 */
 	private boolean isOnPerimeter(Coordenadas c) {
-		int x = c.getX();
-		int y = c.getY();
+		return isOnPerimeter(c.getX(), c.getY());
+	}
+
+	/**
+	 * Checks if the point (x, y) lies on the perimeter (border) of this special cost zone.
+	 * This means the point's x or y value must match one of the boundary values of the zone
+	 * (x1, x2, y1, y2) while also being within the other dimension's range.
+	 *
+	 * @param x The x-coordinate of the point.
+	 * @param y The y-coordinate of the point.
+	 * @return {@code true} if the point is on the perimeter, {@code false} otherwise.
+	 */
+	boolean isOnPerimeter(int x, int y) {
 		int x1 = cantoInferior.getX();
 		int y1 = cantoInferior.getY();
 		int x2 = cantoSuperior.getX();
@@ -1,6 +1,11 @@
 import CORE.*;
 import io.*;
 import MODE.*;
+import UTIL.RandomUtil;
+
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.util.function.Supplier;
 
 /**
  * The main entry point for the simulation application.
@@ -28,6 +33,17 @@ public class Main {
      * <li>{@code -f <filepath>}: Reads simulation parameters from the specified file.</li>
      * <li>{@code -r <values...>}: Generates random simulation parameters based on the provided values.</li>
      * </ul>
+     * <p>Either format may be combined with run options:</p>
+     * <ul>
+     * <li>{@code -q heap|calendar}: Selects the event calendar backend (default {@code calendar}).</li>
+     * <li>{@code -s <seed>}: Seeds the random number generator, making the run reproducible.</li>
+     * <li>{@code -b <replicas>}: Runs independent replicas in parallel and prints a summary of their results.</li>
+     * <li>{@code -o <file>}: Writes the simulation's output to the given file instead of the standard output.</li>
+     * <li>{@code -x csv:<file>} or {@code -x bin:<file>}: Also exports the observations as CSV records or in a binary columnar layout.</li>
+     * <li>{@code -c <interval>:<file>}: Writes a checkpoint of the run to the given file every {@code interval} time units.</li>
+     * <li>{@code -p <threads>}: Executes the events a time slice at a time, running the moves of each slice on the given number of threads.</li>
+     * <li>{@code -C <file>}: Resumes the run saved in the given checkpoint, instead of reading {@code -f} or {@code -r} input.</li>
+     * </ul>
      *
      * @param args Command-line arguments passed to the application.
      * Expected formats:
@@ -41,65 +57,91 @@ public class Main {
             Input_Parser parser = new Input_Parser();
             SimulationParameters params;
 
-            // Check command-line arguments to determine input mode
-            if (args.length > 0 && args[0].equals("-f")) {
-                // Example: java -jar projeto.jar -f input.txt
-                if (args.length < 2) {
-                    System.err.println("Erro: O modo -f requer o caminho do ficheiro. Usa -f <ficheiro>");
-                    return;
-                }
-                String path = args[1];
-                params = parser.parseFile(path);
+            // Separate the run options from the input arguments
+            RunOptions opts = parser.parseOptions(args);
+            args = opts.getArgs();
 
-            } else if (args.length > 0 && args[0].equals("-r")) {
-                // Example: java -jar projeto.jar -r 5 5 1 1 5 5 1 4 100 10 100 3 10 1 1
-                // The parseArgs method itself will validate the number of arguments for -r mode
-                params = parser.parseArgs(args);
+            // Select the queue implementation backing the PEC (Priority Event Calendar)
+            Supplier<EventQueue> fila = opts.getFila().equals(RunOptions.FILA_HEAP)
+                    ? HeapEventQueue::new : CalendarEventQueue::new;
 
+            Simulation sim;
+            boolean retomada = opts.getRetomar() != null;
+            if (retomada) {
+                // Continue a checkpointed run, whose parameters and state come from the checkpoint
+                sim = Checkpoint.read(Path.of(opts.getRetomar()), fila.get());
+                params = sim.getContext().getParameters();
             } else {
-                System.err.println("Erro: argumentos inválidos. Usa -f <ficheiro> ou -r <valores>");
-                return;
-            }
+                // A single generator drives every random decision, so a seeded run is reproducible
+                RandomUtil random = opts.getSeed() != null ? new RandomUtil(opts.getSeed()) : new RandomUtil();
+
+                // Check command-line arguments to determine input mode
+                if (args.length > 0 && args[0].equals("-f")) {
+                    // Example: java -jar projeto.jar -f input.txt
+                    if (args.length < 2) {
+                        System.err.println("Erro: O modo -f requer o caminho do ficheiro. Usa -f <ficheiro>");
+                        return;
+                    }
+                    String path = args[1];
+                    params = parser.parseFile(path);
 
-            // Create the grid based on parsed parameters
-            Grid grid = params.buildGrid();
+                } else if (args.length > 0 && args[0].equals("-r")) {
+                    // Example: java -jar projeto.jar -r 5 5 1 1 5 5 1 4 100 10 100 3 10 1 1
+                    // The parseArgs method itself will validate the number of arguments for -r mode
+                    params = parser.parseArgs(args, random.split());
+
+                } else {
+                    System.err.println("Erro: argumentos inválidos. Usa -f <ficheiro> ou -r <valores>");
+                    return;
+                }
 
-            // Initialize core simulation structures:
-            // PEC (Priority Event Calendar) to manage events chronologically
-            PEC pec = new PEC();
-            // PopulationManager to manage individuals in the simulation
-            // It's initialized with null context initially and then updated
-            // because Simulation_Context needs PopulationManager, and vice-versa (circular dependency).
-            PopulationManager pm = new PopulationManager(null);
-            // Simulation_Context holds all shared simulation state and parameters
-            Simulation_Context context = new Simulation_Context(grid, pec, pm, params);
-            // Re-initialize PopulationManager with the correct context
-            pm = new PopulationManager(context);
-            // Update the Simulation_Context with the correctly initialized PopulationManager
-            context = new Simulation_Context(grid, pec, pm, params);
+                // Create the grid based on parsed parameters
+                Grid grid = params.buildGrid();
 
-            // Get the EventFactory from the context for creating events
-            EventFactory factory = context.getEventFactory();
+                // Batch mode: run independent replicas in parallel on the shared grid
+                if (opts.getReplicas() > 0) {
+                    ReplicaRunner runner = new ReplicaRunner(params, grid, fila);
+                    ReplicaRunner.printSummary(runner.run(opts.getReplicas(), random), System.out);
+                    return;
+                }
 
-            // Create initial population and schedule their initial events
-            // 'nu' represents the initial number of individuals
-            for (int i = 0; i < params.getNu(); i++) {
-                Individual ind = new Individual(params.getStartPoint(), 0, 0); // New individual starting at start point
-                // Set individual's death time based on a random exponential distribution (lambda = mu)
-                ind.setDeathTime((int) (Math.ceil(-Math.log(1 - Math.random()) * params.getMu())));
-                pm.add(ind); // Add individual to the population manager
+                // Initialize core simulation structures:
+                // PEC (Priority Event Calendar) to manage events chronologically
+                PEC pec = new PEC(fila.get());
 
-                // Schedule initial events for each individual
-                pec.addEvent(factory.createDeathEvent(ind, ind.getDeathTime()));
-                // Schedule initial move event based on random exponential distribution (lambda = delta)
-                pec.addEvent(factory.createMoveEvent(ind, (int) (Math.ceil(-Math.log(1 - Math.random()) * params.getDelta()))));
-                // Schedule initial reproduction event based on random exponential distribution (lambda = rho)
-                pec.addEvent(factory.createReproductionEvent(ind, (int) (Math.ceil(-Math.log(1 - Math.random()) * params.getRho()))));
+                // Create the initial population with its events
+                sim = Simulation.setup(params, grid, pec, random);
+            }
+            if (opts.getParalelismo() > 0) {
+                sim.setParallelism(opts.getParalelismo());
+            }
+            if (opts.getCheckpointFicheiro() != null) {
+                sim.setCheckpoints(opts.getCheckpointIntervalo(), Path.of(opts.getCheckpointFicheiro()));
             }
 
-            // Create and run the main simulation loop
-            Simulation sim = new Simulation(context);
-            sim.run();
+            // Run the main simulation loop
+            if (opts.getSaida() == null && opts.getExportFormato() == null) {
+                sim.run();
+            } else {
+                // Write the observations to the requested file instead of the standard output,
+                // appending to it when a run is resumed, and to the machine-readable export if
+                // one was requested; the export of a resumed run holds the rest of the run.
+                // The standard output is only flushed at the end, never closed
+                ObservationSink sink = opts.getSaida() == null
+                        ? ObservationSink.keepOpen(new TextObservationSink(System.out))
+                        : new TextObservationSink(new FileOutputStream(opts.getSaida(), retomada));
+                if (opts.getExportFormato() != null) {
+                    ObservationSink export = opts.getExportFormato().equals(RunOptions.EXPORT_CSV)
+                            ? new CsvObservationSink(new FileOutputStream(opts.getExportFicheiro()))
+                            : new BinaryObservationSink(Path.of(opts.getExportFicheiro()));
+                    if (retomada) export.inputParameters(params);
+                    sink = ObservationSink.both(sink, export);
+                }
+                try (ObservationSink s = sink) {
+                    sim.setObservationSink(s);
+                    sim.run();
+                }
+            }
 
         } catch (Exception e) {
             // Catch any exceptions during parsing or simulation and print stack trace
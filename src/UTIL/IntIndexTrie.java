@@ -0,0 +1,127 @@
+package UTIL;
+
+import java.util.Arrays;
+
+/**
+ * A persistent map from non-negative {@code int} keys to non-negative {@code int} values:
+ * an update returns a new map and leaves the original unchanged, sharing with it every node
+ * the update did not touch.
+ * <p>
+ * The map is a radix trie of 16-way nodes. Each level consumes four bits of the key, and
+ * the leaves hold the values themselves in primitive arrays, so lookups never box. An update
+ * copies only the nodes on the way to the keys it changes, and keys that differ only in
+ * their lowest four bits share a leaf, so a map that differs from another in a few close
+ * keys costs a few small arrays. The trie grows a level whenever a key does not fit.
+ */
+public final class IntIndexTrie {
+	/** The number of key bits consumed by each level. */
+	private static final int BITS = 4;
+	/** The number of children of each node. */
+	private static final int LARGURA = 1 << BITS;
+	/** The mask of the digit of a key at one level. */
+	private static final int MASCARA = LARGURA - 1;
+
+	/**
+	 * The empty map.
+	 */
+	public static final IntIndexTrie EMPTY = new IntIndexTrie(null, 0);
+
+	/**
+	 * The root node: an {@code Object[]} of children, or an {@code int[]} leaf when
+	 * {@link #deslocamento} is 0, or {@code null} for the empty map. A leaf stores each
+	 * value plus one, so that 0 marks an absent key.
+	 */
+	private final Object raiz;
+	/**
+	 * The position of the digit of a key read at the root; the map holds keys below
+	 * {@code 1 << (deslocamento + BITS)}.
+	 */
+	private final int deslocamento;
+
+	/**
+	 * Constructs a map from its root.
+	 *
+	 * @param raiz The root node.
+	 * @param deslocamento The position of the digit read at the root.
+	 */
+	private IntIndexTrie(Object raiz, int deslocamento) {
+		this.raiz = raiz;
+		this.deslocamento = deslocamento;
+	}
+
+	/**
+	 * Returns the value associated with a key.
+	 *
+	 * @param key The key to look up (non-negative).
+	 * @param absent The value to return if the key is not present.
+	 * @return The associated value, or {@code absent} if there is none.
+	 */
+	public int get(int key, int absent) {
+		if ((key >>> deslocamento) >>> BITS != 0) return absent;
+		Object no = raiz;
+		for (int s = deslocamento; s > 0 && no != null; s -= BITS) {
+			no = ((Object[]) no)[(key >>> s) & MASCARA];
+		}
+		if (no == null) return absent;
+		int v = ((int[]) no)[key & MASCARA];
+		return v != 0 ? v - 1 : absent;
+	}
+
+	/**
+	 * Returns a map with the entries of this one and the given ones, which replace any
+	 * previous values of their keys. Each node of this map on the way to the new keys is
+	 * copied once, however many of the new keys lie below it.
+	 *
+	 * @param pares The new entries, each packed as {@code (long) key << 32 | value}; the
+	 * first {@code n} are sorted in place.
+	 * @param n The number of new entries.
+	 * @return The new map.
+	 */
+	public IntIndexTrie putAll(long[] pares, int n) {
+		if (n == 0) return this;
+		Arrays.sort(pares, 0, n);
+		int maior = (int) (pares[n - 1] >>> 32);
+		Object r = raiz;
+		int s = deslocamento;
+		while ((maior >>> s) >>> BITS != 0) {
+			// Add a level on top: the current keys all fall under its first child
+			if (r != null) {
+				Object[] topo = new Object[LARGURA];
+				topo[0] = r;
+				r = topo;
+			}
+			s += BITS;
+		}
+		return new IntIndexTrie(inserir(r, s, pares, 0, n), s);
+	}
+
+	/**
+	 * Returns a copy of a node with a run of sorted entries inserted below it.
+	 *
+	 * @param no The node, or {@code null} if there is none yet.
+	 * @param s The position of the digit read at the node.
+	 * @param pares The packed entries.
+	 * @param de The index of the first entry of the run.
+	 * @param ate The index after the last entry of the run.
+	 * @return The new node.
+	 */
+	private static Object inserir(Object no, int s, long[] pares, int de, int ate) {
+		if (s == 0) {
+			int[] folha = no == null ? new int[LARGURA] : ((int[]) no).clone();
+			for (int i = de; i < ate; i++) {
+				folha[(int) (pares[i] >>> 32) & MASCARA] = (int) pares[i] + 1;
+			}
+			return folha;
+		}
+		Object[] filhos = no == null ? new Object[LARGURA] : ((Object[]) no).clone();
+		// The entries are sorted, so the ones under each child are consecutive
+		for (int i = de; i < ate; ) {
+			int digito = (int) (pares[i] >>> (32 + s)) & MASCARA;
+			int j = i + 1;
+			while (j < ate && ((int) (pares[j] >>> (32 + s)) & MASCARA) == digito) j++;
+			filhos[digito] = inserir(filhos[digito], s - BITS, pares, i, j);
+			i = j;
+		}
+		return filhos;
+	}
+}
@@ -1,24 +1,47 @@
 package UTIL;
 
-import java.util.Random;
-
 /**
  * A utility class providing methods for generating various types of random numbers.
- * It encapsulates a {@link Random} instance and offers convenience methods
- * for uniform and exponential distributions, as well as seed control for reproducibility.
+ * It encapsulates a {@link SplitMix64} generator, the algorithm of
+ * {@link java.util.SplittableRandom}, and offers convenience methods for uniform and
+ * exponential distributions, as well as seed control for reproducibility.
+ * <p>
+ * A generator built from a seed always produces the same sequence, so a simulation that
+ * draws all its random numbers from one instance can be reproduced exactly. An instance is
+ * not safe for use by several threads; independent tasks should each take their own
+ * generator from {@link #split()}. The state of a generator can be saved with
+ * {@link #getState()} and restored with {@link #fromState(long[])}, for instance in a checkpoint.
  */
 public class RandomUtil {
 	/**
-	 * The underlying {@link Random} object used for generating random numbers.
+	 * The underlying {@link SplitMix64} generator used for generating random numbers.
 	 */
-	private Random random;
+	private SplitMix64 random;
 
 	/**
 	 * Constructs a new RandomUtil instance.
-	 * Initializes the internal {@link Random} object with a default, time-dependent seed.
+	 * Initializes the internal generator with a default, time-dependent seed.
 	 */
 	public RandomUtil() {
-		this.random = new Random();
+		this.random = SplitMix64.aleatorio();
+	}
+
+	/**
+	 * Constructs a new RandomUtil instance whose sequence is determined by the given seed.
+	 *
+	 * @param seed The seed value of the generator.
+	 */
+	public RandomUtil(long seed) {
+		this.random = new SplitMix64(seed);
+	}
+
+	/**
+	 * Constructs a new RandomUtil instance around the given generator.
+	 *
+	 * @param random The generator to use.
+	 */
+	private RandomUtil(SplitMix64 random) {
+		this.random = random;
 	}
 
 	/**
@@ -31,22 +54,77 @@ public class RandomUtil {
 		return random.nextDouble();
 	}
 
+	/**
+	 * Returns a pseudo-random, uniformly distributed {@code int} value
+	 * between 0 (inclusive) and the given bound (exclusive).
+	 *
+	 * @param bound The upper bound (exclusive); must be positive.
+	 * @return A uniformly distributed pseudo-random {@code int} between 0 and {@code bound - 1}.
+	 */
+	public int nextInt(int bound) {
+		return random.nextInt(bound);
+	}
+
 	/**
 	 * Returns a pseudo-random number drawn from an exponential distribution
 	 * with a specified mean ($\text{aMean}$).
-	 * The formula used is $X = -\ln(1 - U) \cdot \text{aMean}$, where $U$ is a
-	 * uniformly distributed random number in the interval $[0, 1)$ and $\lambda = 1 / \text{aMean}$
-	 * is the rate parameter.
+	 * A unit exponential is drawn with the generator's ziggurat method, which needs no
+	 * logarithm in the common case, and scaled by the mean.
 	 *
 	 * @param aMean The desired mean of the exponential distribution ($\mu$).
 	 * @return A pseudo-random number from an exponential distribution with the given mean.
 	 */
 	public double getExponential(double aMean) {
-		double u = getUniform();
-		// Using the inverse transform sampling method for exponential distribution.
-		// The formula is -ln(1-U) / lambda, where lambda = 1/aMean.
-		// So, -ln(1-U) * aMean
-		return -Math.log(1 - u) * aMean;
+		return random.nextExponential() * aMean;
+	}
+
+	/**
+	 * Returns an exponentially distributed time delay with the given mean, rounded up
+	 * to a whole number of time units.
+	 *
+	 * @param media The mean of the delay.
+	 * @return The delay.
+	 */
+	public int nextDelay(double media) {
+		return (int) Math.ceil(getExponential(media));
+	}
+
+	/**
+	 * Returns an exponentially distributed time delay whose mean is scaled by an
+	 * individual's comfort $\phi$: the mean is $(1 - \ln(\phi)) \cdot \text{mediaBase}$,
+	 * so less comfortable individuals wait longer. The delay is rounded up to a whole
+	 * number of time units.
+	 *
+	 * @param mediaBase The base mean of the delay (e.g., $\rho$, $\mu$, $\delta$).
+	 * @param phi The comfort of the individual, already computed by the caller.
+	 * @return The delay.
+	 */
+	public int nextDelay(double mediaBase, double phi) {
+		return nextDelay((1 - Math.log(phi)) * mediaBase);
+	}
+
+	/**
+	 * Returns a new, statistically independent generator, and advances this one.
+	 * The sequence of the new generator is determined by the state of this one, so
+	 * splitting a seeded generator is reproducible too.
+	 *
+	 * @return A new {@link RandomUtil} for use by an independent task.
+	 */
+	public RandomUtil split() {
+		return new RandomUtil(random.split());
+	}
+
+	/**
+	 * Returns a new generator determined by the state of this one and a key, without
+	 * advancing this one. Tasks that run concurrently can each derive their own generator
+	 * from a shared one and a key of their own, and get the same numbers whatever the order
+	 * they run in; this generator must not be used while they do.
+	 *
+	 * @param chave The key of the new generator, such as the sequence number of an event.
+	 * @return A new {@link RandomUtil} determined by this generator's state and {@code chave}.
+	 */
+	public RandomUtil derive(long chave) {
+		return new RandomUtil(random.derivar(chave));
 	}
 
 	/**
@@ -54,9 +132,33 @@ public class RandomUtil {
 	 * Setting a specific seed allows for reproducible sequences of random numbers,
 	 * which is useful for debugging and testing simulations.
 	 *
-	 * @param seed The seed value to be used by the {@link Random} instance.
+	 * @param seed The seed value to be used by the generator.
 	 */
 	public void setSeed(long seed) {
-		random.setSeed(seed);
+		random = new SplitMix64(seed);
+	}
+
+	/**
+	 * Returns the state of the generator, from which {@link #fromState(long[])} builds a
+	 * generator that continues with the same sequence.
+	 *
+	 * @return A new array with the two values of the state.
+	 */
+	public long[] getState() {
+		return new long[] {random.getSeed(), random.getGamma()};
+	}
+
+	/**
+	 * Builds a generator from a state returned by {@link #getState()}.
+	 *
+	 * @param estado The state of the generator.
+	 * @return A new {@link RandomUtil} that continues the sequence of the saved generator.
+	 * @throws IllegalArgumentException If the state is not valid.
+	 */
+	public static RandomUtil fromState(long[] estado) {
+		if (estado.length != 2 || (estado[1] & 1) == 0) {
+			throw new IllegalArgumentException("Estado inválido do gerador");
+		}
+		return new RandomUtil(new SplitMix64(estado[0], estado[1]));
 	}
-}
\ No newline at end of file
+}
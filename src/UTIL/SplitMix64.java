@@ -0,0 +1,159 @@
+package UTIL;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The SplitMix64 generator, the algorithm of {@link SplittableRandom}, with a state that
+ * can be read and restored.
+ * <p>
+ * The state is two {@code long} values: the seed, advanced by the gamma on every draw, and
+ * the gamma, an odd constant fixed when the generator is created. {@link #nextLong()} and
+ * {@link #nextInt()} mix the advanced seed exactly as {@link SplittableRandom} does, and
+ * the other draws are the default methods of {@link RandomGenerator}, which
+ * {@link SplittableRandom} uses as well, so both generators produce the same sequences
+ * from the same seed, and {@link #split()} produces the same children.
+ */
+final class SplitMix64 implements RandomGenerator {
+	/**
+	 * The gamma of a generator built from a seed.
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * The seed, advanced by {@link #gamma} on every draw.
+	 */
+	private long seed;
+	/**
+	 * The increment of the seed; always odd.
+	 */
+	private final long gamma;
+
+	/**
+	 * Constructs a generator whose sequence is determined by the given seed, as
+	 * {@link SplittableRandom#SplittableRandom(long)} does.
+	 *
+	 * @param seed The seed value of the generator.
+	 */
+	SplitMix64(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Constructs a generator from its state, as returned by {@link #getSeed()} and
+	 * {@link #getGamma()}.
+	 *
+	 * @param seed The seed.
+	 * @param gamma The gamma; must be odd.
+	 */
+	SplitMix64(long seed, long gamma) {
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Constructs a generator with an unpredictable state, taken from a new
+	 * {@link SplittableRandom}.
+	 *
+	 * @return A new, unseeded generator.
+	 */
+	static SplitMix64 aleatorio() {
+		SplittableRandom origem = new SplittableRandom();
+		return new SplitMix64(origem.nextLong(), mixGamma(origem.nextLong()));
+	}
+
+	/**
+	 * Returns the current seed of the generator.
+	 * @return The seed.
+	 */
+	long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the gamma of the generator.
+	 * @return The gamma.
+	 */
+	long getGamma() {
+		return gamma;
+	}
+
+	/**
+	 * Returns a new generator, and advances this one, as {@link SplittableRandom#split()} does.
+	 *
+	 * @return A new, statistically independent generator.
+	 */
+	SplitMix64 split() {
+		return new SplitMix64(nextLong(), mixGamma(nextSeed()));
+	}
+
+	/**
+	 * Returns a new generator determined by the current state of this one and a key,
+	 * without advancing this one. Different keys, or different states of this generator,
+	 * give statistically independent generators.
+	 *
+	 * @param chave The key of the new generator.
+	 * @return A new generator.
+	 */
+	SplitMix64 derivar(long chave) {
+		long z = seed ^ mix64(chave * GOLDEN_GAMMA + gamma);
+		return new SplitMix64(mix64(z), mixGamma(z + GOLDEN_GAMMA));
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+
+	@Override
+	public int nextInt() {
+		return mix32(nextSeed());
+	}
+
+	/**
+	 * Advances the seed by the gamma.
+	 *
+	 * @return The new seed.
+	 */
+	private long nextSeed() {
+		return seed += gamma;
+	}
+
+	/**
+	 * Stafford's variant 13 of the 64-bit mix function.
+	 *
+	 * @param z The value to mix.
+	 * @return The mixed value.
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * The high 32 bits of Stafford's variant 4 of the 64-bit mix function.
+	 *
+	 * @param z The value to mix.
+	 * @return The mixed value.
+	 */
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+
+	/**
+	 * Derives the gamma of a new generator, with the MurmurHash3 mix function, forcing it to
+	 * be odd and to have enough bit transitions.
+	 *
+	 * @param z The value to derive the gamma from.
+	 * @return The gamma.
+	 */
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
@@ -0,0 +1,258 @@
+package io;
+
+import MODE.Individual;
+import MODE.PathNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An {@link ObservationSink} that writes the observations of a run to a binary file in a
+ * columnar layout, so that each field can be loaded as one contiguous array.
+ * <p>
+ * The observations are collected in memory and the file is written when the sink is
+ * {@link #close() closed}, through a buffered {@link FileChannel}. All numbers are
+ * little-endian; {@code int} is 4 bytes and {@code double} 8 bytes. With {@code c}
+ * observations and {@code p} distinct paths, the file holds, in order:
+ * <ol>
+ * <li>the magic bytes {@code OBS1};</li>
+ * <li>{@code int n, m, x0, y0, c}: the grid size, the start point of every path and the
+ * number of observations;</li>
+ * <li>the columns, each of {@code c} values: {@code int observation}, {@code int time},
+ * {@code int events}, {@code int population}, {@code byte hit} (0 or 1), {@code int cost},
+ * {@code double comfort} and {@code int path};</li>
+ * <li>{@code int path, cost} of the final best fit individual;</li>
+ * <li>{@code int p}, then {@code p} values {@code int steps}, the number of moves of each path;</li>
+ * <li>the {@link DirectionCodes 2-bit direction codes} of each path in turn, packed four
+ * steps per byte, each path taking {@code (steps + 3) / 4} bytes.</li>
+ * </ol>
+ * A {@code path} field is an index into the paths, or -1 if there was no best fit
+ * individual; observations whose best fit individual kept the same path share its entry.
+ */
+public class BinaryObservationSink implements ObservationSink {
+	/**
+	 * The magic bytes at the start of the file.
+	 */
+	private static final byte[] MAGIC = {'O', 'B', 'S', '1'};
+
+	/**
+	 * The destination file.
+	 */
+	private final FileChannel canal;
+	/**
+	 * The buffer the file is written through.
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+	/**
+	 * The grid size and start point, {@code n, m, x0, y0}.
+	 */
+	private final int[] cabecalho = new int[4];
+	/**
+	 * The number of observations collected.
+	 */
+	private int total;
+	/** The observation numbers. */
+	private int[] observacao = new int[32];
+	/** The observation times. */
+	private int[] tempo = new int[32];
+	/** The number of events executed up to each observation. */
+	private int[] eventos = new int[32];
+	/** The population size at each observation. */
+	private int[] populacao = new int[32];
+	/** Whether the final point had been hit at each observation. */
+	private byte[] atingido = new byte[32];
+	/** The cost of the best fit individual at each observation. */
+	private int[] custo = new int[32];
+	/** The comfort of the best fit individual at each observation. */
+	private double[] conforto = new double[32];
+	/** The path of the best fit individual at each observation, as an index into {@link #finais}. */
+	private int[] caminho = new int[32];
+	/** The path of the final best fit individual, or -1. */
+	private int caminhoFinal = -1;
+	/** The cost of the final best fit individual. */
+	private int custoFinal;
+	/** The index of each distinct path, keyed by its last vertex. */
+	private final Map<PathNode, Integer> indices = new IdentityHashMap<>();
+	/** The last vertex of each distinct path, in index order. */
+	private final List<PathNode> finais = new ArrayList<>();
+	/** The packed direction codes of each distinct path, in index order. */
+	private final List<byte[]> codigos = new ArrayList<>();
+
+	/**
+	 * Constructs a sink that writes to a file, replacing it if it exists.
+	 *
+	 * @param ficheiro The path of the file.
+	 * @throws UncheckedIOException If the file cannot be opened.
+	 */
+	public BinaryObservationSink(Path ficheiro) {
+		try {
+			this.canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void inputParameters(SimulationParameters params) {
+		cabecalho[0] = params.getN();
+		cabecalho[1] = params.getM();
+		cabecalho[2] = params.getStartPoint().getX();
+		cabecalho[3] = params.getStartPoint().getY();
+	}
+
+	@Override
+	public void observation(int obsNum, int time, int events, int popSize,
+							boolean hit, Individual best, int cost, double comfort) {
+		if (total == observacao.length) crescer();
+		observacao[total] = obsNum;
+		tempo[total] = time;
+		eventos[total] = events;
+		populacao[total] = popSize;
+		atingido[total] = (byte) (hit ? 1 : 0);
+		custo[total] = cost;
+		conforto[total] = comfort;
+		caminho[total] = indice(best);
+		total++;
+	}
+
+	@Override
+	public void bestFit(Individual best, int cost) {
+		caminhoFinal = indice(best);
+		custoFinal = cost;
+	}
+
+	/**
+	 * Does nothing: the columns can only be written once every observation is known,
+	 * when the sink is closed.
+	 */
+	@Override
+	public void flush() {
+	}
+
+	@Override
+	public void close() {
+		try {
+			buffer.put(MAGIC);
+			for (int v : cabecalho) buffer.putInt(v);
+			buffer.putInt(total);
+			ints(observacao);
+			ints(tempo);
+			ints(eventos);
+			ints(populacao);
+			for (int i = 0; i < total; i++) {
+				garantir(1);
+				buffer.put(atingido[i]);
+			}
+			ints(custo);
+			for (int i = 0; i < total; i++) {
+				garantir(8);
+				buffer.putDouble(conforto[i]);
+			}
+			ints(caminho);
+			garantir(12);
+			buffer.putInt(caminhoFinal).putInt(custoFinal).putInt(finais.size());
+			for (PathNode fim : finais) {
+				garantir(4);
+				buffer.putInt(fim.getIndice());
+			}
+			for (byte[] b : codigos) {
+				for (int i = 0; i < b.length; ) {
+					garantir(1);
+					int n = Math.min(buffer.remaining(), b.length - i);
+					buffer.put(b, i, n);
+					i += n;
+				}
+			}
+			escrever();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			try {
+				canal.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of an individual's path, registering the path the first time it is seen.
+	 *
+	 * @param ind The individual, or {@code null}.
+	 * @return The index of its path, or -1 if {@code ind} is {@code null}.
+	 */
+	private int indice(Individual ind) {
+		if (ind == null) return -1;
+		PathNode fim = ind.getPathEnd();
+		Integer i = indices.get(fim);
+		if (i == null) {
+			i = finais.size();
+			indices.put(fim, i);
+			finais.add(fim);
+			codigos.add(DirectionCodes.encode(ind.getGrid(), fim));
+		}
+		return i;
+	}
+
+	/**
+	 * Doubles the capacity of the columns.
+	 */
+	private void crescer() {
+		int n = observacao.length * 2;
+		observacao = Arrays.copyOf(observacao, n);
+		tempo = Arrays.copyOf(tempo, n);
+		eventos = Arrays.copyOf(eventos, n);
+		populacao = Arrays.copyOf(populacao, n);
+		atingido = Arrays.copyOf(atingido, n);
+		custo = Arrays.copyOf(custo, n);
+		conforto = Arrays.copyOf(conforto, n);
+		caminho = Arrays.copyOf(caminho, n);
+	}
+
+	/**
+	 * Writes the first {@link #total} values of an {@code int} column.
+	 *
+	 * @param coluna The column.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void ints(int[] coluna) throws IOException {
+		for (int i = 0; i < total; i++) {
+			garantir(4);
+			buffer.putInt(coluna[i]);
+		}
+	}
+
+	/**
+	 * Writes the buffer to the file if it has less than the given number of bytes free.
+	 *
+	 * @param bytes The number of bytes about to be put.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void garantir(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) escrever();
+	}
+
+	/**
+	 * Writes the contents of the buffer to the file and empties it.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void escrever() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			canal.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,133 @@
+package io;
+
+import MODE.Individual;
+import MODE.PathNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An {@link ObservationSink} that writes one CSV record per observation, for analysis
+ * tools that would otherwise have to parse the text report.
+ * <p>
+ * The file starts with the header
+ * {@code record,observation,time,events,population,hit,cost,comfort,x0,y0,steps,path}.
+ * Each observation is a record of type {@code obs}, and the final best fit individual is a
+ * last record of type {@code best} that only fills the cost and the path. {@code hit} is
+ * 0 or 1, and {@code comfort} is written with {@link Double#toString(double)}, so the file
+ * does not depend on the locale.
+ * <p>
+ * The path of the best fit individual starts at {@code (x0, y0)} and is followed by
+ * {@code steps} moves, written in {@code path} as the hexadecimal digits of their
+ * {@link DirectionCodes 2-bit direction codes}: each digit holds two steps, the earlier one
+ * in its two lowest bits. This takes half a character per step instead of the ten or so of
+ * the {@code (x, y)} text. The fields of a record are empty when there is no best fit
+ * individual.
+ */
+public class CsvObservationSink implements ObservationSink {
+	/**
+	 * The header line of the file.
+	 */
+	private static final String CABECALHO = "record,observation,time,events,population,hit,cost,comfort,x0,y0,steps,path";
+
+	/**
+	 * The destination of the records.
+	 */
+	private final Writer destino;
+	/**
+	 * The record being built.
+	 */
+	private final StringBuilder linha = new StringBuilder(256);
+
+	/**
+	 * Constructs a sink that writes to an output stream, usually a file.
+	 *
+	 * @param out The destination stream.
+	 */
+	public CsvObservationSink(OutputStream out) {
+		this.destino = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), 1 << 16);
+	}
+
+	@Override
+	public void inputParameters(SimulationParameters params) {
+		linha.append(CABECALHO);
+		escrever();
+	}
+
+	@Override
+	public void observation(int obsNum, int time, int events, int popSize,
+							boolean hit, Individual best, int cost, double comfort) {
+		linha.append("obs,").append(obsNum).append(',').append(time).append(',')
+				.append(events).append(',').append(popSize).append(',').append(hit ? 1 : 0).append(',');
+		if (best != null) {
+			linha.append(cost).append(',').append(comfort).append(',');
+		} else {
+			linha.append(",,");
+		}
+		caminho(best);
+		escrever();
+	}
+
+	@Override
+	public void bestFit(Individual best, int cost) {
+		linha.append("best,,,,,,");
+		if (best != null) linha.append(cost);
+		linha.append(",,");
+		caminho(best);
+		escrever();
+	}
+
+	@Override
+	public void flush() {
+		try {
+			destino.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			destino.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Appends the {@code x0,y0,steps,path} fields of an individual's path.
+	 *
+	 * @param ind The individual, or {@code null} for empty fields.
+	 */
+	private void caminho(Individual ind) {
+		if (ind == null) {
+			linha.append(",,,");
+			return;
+		}
+		PathNode fim = ind.getPathEnd();
+		int inicio = fim.ancestral(0).getCell();
+		linha.append(ind.getGrid().getCellX(inicio)).append(',')
+				.append(ind.getGrid().getCellY(inicio)).append(',')
+				.append(fim.getIndice()).append(',');
+		DirectionCodes.appendHex(linha, DirectionCodes.encode(ind.getGrid(), fim));
+	}
+
+	/**
+	 * Writes the record being built as a line and empties it.
+	 */
+	private void escrever() {
+		try {
+			linha.append('\n');
+			destino.append(linha);
+			linha.setLength(0);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package io;
+
+import MODE.Grid;
+import MODE.PathNode;
+
+/**
+ * Encodes paths as sequences of 2-bit direction codes, for the machine-readable exports.
+ * <p>
+ * Every step of a path moves to a neighbouring cell, so a path is fully described by its
+ * first cell and the direction of each step ({@link Grid#NORTE}, {@link Grid#ESTE},
+ * {@link Grid#SUL} or {@link Grid#OESTE}, i.e. 0 to 3). Four steps are packed per byte,
+ * the first step in the two lowest bits of the first byte.
+ */
+final class DirectionCodes {
+	/** The hexadecimal digits, indexed by value. */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Not instantiable.
+	 */
+	private DirectionCodes() {
+	}
+
+	/**
+	 * Returns the number of bytes holding the direction codes of a path with the given
+	 * number of steps.
+	 *
+	 * @param passos The number of steps of the path.
+	 * @return The number of packed bytes.
+	 */
+	static int bytes(int passos) {
+		return (passos + 3) >>> 2;
+	}
+
+	/**
+	 * Packs the direction codes of the path ending at a vertex.
+	 *
+	 * @param grid The grid of the path.
+	 * @param fim The last vertex of the path.
+	 * @return A new array of {@link #bytes(int) bytes(fim.getIndice())} bytes.
+	 */
+	static byte[] encode(Grid grid, PathNode fim) {
+		byte[] codigos = new byte[bytes(fim.getIndice())];
+		for (PathNode node = fim; node.getAnterior() != null; node = node.getAnterior()) {
+			int passo = node.getIndice() - 1;
+			int d = grid.getDirection(node.getAnterior().getCell(), node.getCell());
+			codigos[passo >>> 2] |= (byte) (d << ((passo & 3) << 1));
+		}
+		return codigos;
+	}
+
+	/**
+	 * Appends packed direction codes as hexadecimal digits, two per byte, low nibble first,
+	 * so that the digits read in the order of the steps.
+	 *
+	 * @param out The text to append to.
+	 * @param codigos The packed direction codes.
+	 */
+	static void appendHex(StringBuilder out, byte[] codigos) {
+		for (byte b : codigos) {
+			out.append(HEX[b & 0xf]).append(HEX[(b >>> 4) & 0xf]);
+		}
+	}
+}
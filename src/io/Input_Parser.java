@@ -1,6 +1,7 @@
 package io;
 
 import MODE.*; // Assuming this imports Coordenadas, Grid, Special_Cost_Zone
+import UTIL.RandomUtil;
 
 import java.io.*;
 import java.util.*;
@@ -20,6 +21,19 @@ public class Input_Parser {
 		// Construtor vazio
 	}
 
+	/**
+	 * Separates the optional run options (see {@link RunOptions#parse(String[])}) from the
+	 * arguments that describe the simulation input, which are available through
+	 * {@link RunOptions#getArgs()} for {@link #parseFile(String)} or {@link #parseArgs(String[])}.
+	 *
+	 * @param args The command-line arguments.
+	 * @return The parsed {@link RunOptions}.
+	 * @throws IllegalArgumentException If an option is missing its value or has an invalid value.
+	 */
+	public RunOptions parseOptions(String[] args) {
+		return RunOptions.parse(args);
+	}
+
 	/**
 	 * Reads and parses simulation parameters from a specified file path.
 	 * The file is expected to follow a specific format:
@@ -104,6 +118,22 @@ public class Input_Parser {
 	 * @throws NumberFormatException If any argument expected to be a number cannot be parsed.
 	 */
 	public SimulationParameters parseArgs(String[] args) {
+		return parseArgs(args, new RandomUtil());
+	}
+
+	/**
+	 * Parses simulation parameters from command-line arguments like {@link #parseArgs(String[])},
+	 * drawing the special cost zones and obstacles from the given generator, so that a seeded
+	 * generator always produces the same parameters.
+	 *
+	 * @param args An array of strings representing the command-line arguments.
+	 * Expected format: `"-r" n m xi yi xf yf nscz nobst tau nu nuMax k mu delta rho`
+	 * @param rand The {@link RandomUtil} used to generate the zones and obstacles.
+	 * @return A {@link SimulationParameters} object populated with the parsed and randomly generated values.
+	 * @throws IllegalArgumentException If the command-line arguments do not match the expected format or count.
+	 * @throws NumberFormatException If any argument expected to be a number cannot be parsed.
+	 */
+	public SimulationParameters parseArgs(String[] args, RandomUtil rand) {
 		// 16 = "-r" + 15 expected values
 		if (!args[0].equals("-r") || args.length != 16) {
 			throw new IllegalArgumentException("Formato inválido para o modo -r: usa 15 valores após -r. Ex: -r n m xi yi xf yf nscz nobst tau nu nuMax k mu delta rho");
@@ -125,7 +155,6 @@ public class Input_Parser {
 		double delta  = Double.parseDouble(args[14]);
 		double rho    = Double.parseDouble(args[15]);
 
-		Random rand = new Random();
 		List<Special_Cost_Zone> zonas = new ArrayList<>();
 		List<Coordenadas> obstaculos = new ArrayList<>();
 
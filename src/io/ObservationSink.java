@@ -0,0 +1,152 @@
+package io;
+
+import MODE.Individual;
+
+/**
+ * The destination of the output of a simulation run: the echo of its input parameters,
+ * the periodic observations and the final best fit individual.
+ * <p>
+ * A sink may buffer its output until {@link #flush()} or {@link #close()}. Failures to
+ * write are reported as {@link java.io.UncheckedIOException}.
+ */
+public interface ObservationSink extends AutoCloseable {
+	/**
+	 * Writes the input parameters of the simulation.
+	 *
+	 * @param params The {@link SimulationParameters} of the simulation.
+	 */
+	void inputParameters(SimulationParameters params);
+
+	/**
+	 * Writes one observation.
+	 *
+	 * @param obsNum The sequential number of the observation.
+	 * @param time The simulated time of the observation.
+	 * @param events The number of events executed up to the observation.
+	 * @param popSize The size of the population.
+	 * @param hit Whether the best fit individual has reached the final point.
+	 * @param best The best fit {@link Individual}, or {@code null} if the population is empty.
+	 * @param cost The cost of the best fit individual's path, or 0 if there is none.
+	 * @param comfort The comfort of the best fit individual, or 0 if there is none.
+	 */
+	void observation(int obsNum, int time, int events, int popSize,
+					 boolean hit, Individual best, int cost, double comfort);
+
+	/**
+	 * Writes the best fit individual at the end of the simulation.
+	 *
+	 * @param best The best fit {@link Individual}, or {@code null} if the population is empty.
+	 * @param cost The cost of the best fit individual's path.
+	 */
+	void bestFit(Individual best, int cost);
+
+	/**
+	 * Writes any buffered output to its destination.
+	 */
+	void flush();
+
+	/**
+	 * Flushes the sink and closes its destination.
+	 */
+	@Override
+	void close();
+
+	/**
+	 * Returns a sink that writes the same output to two sinks, in order.
+	 *
+	 * @param primeiro The first sink.
+	 * @param segundo The second sink.
+	 * @return A sink that forwards every call to both sinks.
+	 */
+	static ObservationSink both(ObservationSink primeiro, ObservationSink segundo) {
+		return new ObservationSink() {
+			@Override
+			public void inputParameters(SimulationParameters params) {
+				primeiro.inputParameters(params);
+				segundo.inputParameters(params);
+			}
+
+			@Override
+			public void observation(int obsNum, int time, int events, int popSize,
+									boolean hit, Individual best, int cost, double comfort) {
+				primeiro.observation(obsNum, time, events, popSize, hit, best, cost, comfort);
+				segundo.observation(obsNum, time, events, popSize, hit, best, cost, comfort);
+			}
+
+			@Override
+			public void bestFit(Individual best, int cost) {
+				primeiro.bestFit(best, cost);
+				segundo.bestFit(best, cost);
+			}
+
+			@Override
+			public void flush() {
+				primeiro.flush();
+				segundo.flush();
+			}
+
+			@Override
+			public void close() {
+				try {
+					primeiro.close();
+				} finally {
+					segundo.close();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns a sink that writes to another sink but only flushes it when closed, for a sink
+	 * whose destination belongs to someone else, such as {@link System#out}.
+	 *
+	 * @param sink The sink to write to.
+	 * @return A sink that forwards every call to {@code sink}, except that {@link #close()}
+	 * only flushes it.
+	 */
+	static ObservationSink keepOpen(ObservationSink sink) {
+		return new ObservationSink() {
+			@Override
+			public void inputParameters(SimulationParameters params) {
+				sink.inputParameters(params);
+			}
+
+			@Override
+			public void observation(int obsNum, int time, int events, int popSize,
+									boolean hit, Individual best, int cost, double comfort) {
+				sink.observation(obsNum, time, events, popSize, hit, best, cost, comfort);
+			}
+
+			@Override
+			public void bestFit(Individual best, int cost) {
+				sink.bestFit(best, cost);
+			}
+
+			@Override
+			public void flush() {
+				sink.flush();
+			}
+
+			@Override
+			public void close() {
+				sink.flush();
+			}
+		};
+	}
+
+	/**
+	 * Returns a sink that discards all output.
+	 *
+	 * @return A sink that writes nothing.
+	 */
+	static ObservationSink discard() {
+		return new ObservationSink() {
+			@Override public void inputParameters(SimulationParameters params) { }
+			@Override public void observation(int obsNum, int time, int events, int popSize,
+											  boolean hit, Individual best, int cost, double comfort) { }
+			@Override public void bestFit(Individual best, int cost) { }
+			@Override public void flush() { }
+			@Override public void close() { }
+		};
+	}
+}
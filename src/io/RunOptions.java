@@ -0,0 +1,235 @@
+package io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the optional settings of a simulation run that are given on the command line
+ * next to the {@code -f} or {@code -r} input, such as the event calendar backend
+ * or the seed of the random number generator.
+ * Instances are created by {@link Input_Parser#parseOptions(String[])}.
+ */
+public class RunOptions {
+	/** The name of the binary heap event calendar backend. */
+	public static final String FILA_HEAP = "heap";
+	/** The name of the calendar queue event calendar backend. */
+	public static final String FILA_CALENDARIO = "calendar";
+
+	/** The command-line arguments that are not run options, in their original order. */
+	private String[] args;
+	/** The name of the CSV export format. */
+	public static final String EXPORT_CSV = "csv";
+	/** The name of the binary columnar export format. */
+	public static final String EXPORT_BIN = "bin";
+
+	/** The event calendar backend to use ({@link #FILA_HEAP} or {@link #FILA_CALENDARIO}). */
+	private String fila = FILA_CALENDARIO;
+	/** The seed of the random number generator, or {@code null} for an unseeded run. */
+	private Long seed;
+	/** The number of replicas of a batch run, or 0 for a single run. */
+	private int replicas;
+	/** The file the simulation's output is written to, or {@code null} for the standard output. */
+	private String saida;
+	/** The format of the machine-readable export ({@link #EXPORT_CSV} or {@link #EXPORT_BIN}), or {@code null} for none. */
+	private String exportFormato;
+	/** The file the machine-readable export is written to, or {@code null} for none. */
+	private String exportFicheiro;
+	/** The number of time units between checkpoints, or 0 if the run is not checkpointed. */
+	private int checkpointIntervalo;
+	/** The file checkpoints are written to, or {@code null} if the run is not checkpointed. */
+	private String checkpointFicheiro;
+	/** The checkpoint file to resume a run from, or {@code null} to start a new run. */
+	private String retomar;
+	/** The number of threads that execute the moves of a time slice, or 0 for the sequential loop. */
+	private int paralelismo;
+
+	/**
+	 * Constructs the default run options, keeping the given input arguments.
+	 *
+	 * @param args The command-line arguments that describe the simulation input.
+	 */
+	public RunOptions(String[] args) {
+		this.args = args;
+	}
+
+	/**
+	 * Returns the command-line arguments that are not run options, i.e. the
+	 * {@code -f} or {@code -r} input arguments.
+	 * @return The remaining arguments.
+	 */
+	public String[] getArgs() { return args; }
+	/**
+	 * Returns the event calendar backend to use.
+	 * @return {@link #FILA_HEAP} or {@link #FILA_CALENDARIO}.
+	 */
+	public String getFila() { return fila; }
+	/**
+	 * Returns the seed of the random number generator.
+	 * @return The seed, or {@code null} if the run is not seeded.
+	 */
+	public Long getSeed() { return seed; }
+	/**
+	 * Returns the number of replicas to run in batch mode.
+	 * @return The number of replicas, or 0 for a single run with the full output.
+	 */
+	public int getReplicas() { return replicas; }
+	/**
+	 * Returns the file the simulation's output is written to.
+	 * @return The path of the output file, or {@code null} to write to the standard output.
+	 */
+	public String getSaida() { return saida; }
+	/**
+	 * Returns the format of the machine-readable export of the observations.
+	 * @return {@link #EXPORT_CSV}, {@link #EXPORT_BIN}, or {@code null} if there is no export.
+	 */
+	public String getExportFormato() { return exportFormato; }
+	/**
+	 * Returns the file the machine-readable export of the observations is written to.
+	 * @return The path of the export file, or {@code null} if there is no export.
+	 */
+	public String getExportFicheiro() { return exportFicheiro; }
+	/**
+	 * Returns the number of time units between checkpoints of the run.
+	 * @return The interval between checkpoints, or 0 if the run is not checkpointed.
+	 */
+	public int getCheckpointIntervalo() { return checkpointIntervalo; }
+	/**
+	 * Returns the file checkpoints of the run are written to.
+	 * @return The path of the checkpoint file, or {@code null} if the run is not checkpointed.
+	 */
+	public String getCheckpointFicheiro() { return checkpointFicheiro; }
+	/**
+	 * Returns the checkpoint file the run is resumed from.
+	 * @return The path of the checkpoint file, or {@code null} to start a new run.
+	 */
+	public String getRetomar() { return retomar; }
+	/**
+	 * Returns the number of threads that execute the moves of each time slice.
+	 * @return The number of threads, or 0 for the sequential loop.
+	 */
+	public int getParalelismo() { return paralelismo; }
+
+	/**
+	 * Splits the command-line arguments into run options and input arguments.
+	 * Recognised options are:
+	 * <ul>
+	 * <li>{@code -q heap|calendar}: the event calendar backend (default {@code calendar}).</li>
+	 * <li>{@code -s seed}: the seed of the random number generator, for a reproducible run.</li>
+	 * <li>{@code -b replicas}: runs the given number of independent replicas in parallel
+	 * and prints a summary of their results instead of the observations. Cannot be combined
+	 * with {@code -o}, {@code -x}, {@code -c}, {@code -C} or {@code -p}.</li>
+	 * <li>{@code -o file}: writes the simulation's output to the given file instead of the standard output.</li>
+	 * <li>{@code -x csv:file} or {@code -x bin:file}: also exports the observations to the given
+	 * file as CSV records or in a binary columnar layout.</li>
+	 * <li>{@code -c interval:file}: writes a checkpoint of the run to the given file every
+	 * {@code interval} time units.</li>
+	 * <li>{@code -C file}: resumes the run saved in the given checkpoint file; no
+	 * {@code -f} or {@code -r} input is needed.</li>
+	 * <li>{@code -p threads}: executes the events a time slice at a time, running the moves of
+	 * each slice on the given number of threads. Moves then draw from generators of their own,
+	 * so the run differs from a sequential run with the same seed.</li>
+	 * </ul>
+	 *
+	 * @param args The command-line arguments.
+	 * @return The parsed {@link RunOptions}.
+	 * @throws IllegalArgumentException If an option is missing its value or has an invalid value,
+	 * or if options that cannot be combined are given together.
+	 */
+	static RunOptions parse(String[] args) {
+		List<String> resto = new ArrayList<>();
+		RunOptions opts = new RunOptions(null);
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-q")) {
+				String v = valor(args, ++i, "-q");
+				if (!v.equals(FILA_HEAP) && !v.equals(FILA_CALENDARIO)) {
+					throw new IllegalArgumentException("Valor inválido para -q: " + v + ". Usa heap ou calendar");
+				}
+				opts.fila = v;
+			} else if (args[i].equals("-s")) {
+				String v = valor(args, ++i, "-s");
+				try {
+					opts.seed = Long.parseLong(v);
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("Valor inválido para -s: " + v + ". Usa um número inteiro");
+				}
+			} else if (args[i].equals("-b")) {
+				String v = valor(args, ++i, "-b");
+				try {
+					opts.replicas = Integer.parseInt(v);
+				} catch (NumberFormatException e) {
+					opts.replicas = -1;
+				}
+				if (opts.replicas <= 0) {
+					throw new IllegalArgumentException("Valor inválido para -b: " + v + ". Usa um número inteiro positivo");
+				}
+			} else if (args[i].equals("-o")) {
+				opts.saida = valor(args, ++i, "-o");
+			} else if (args[i].equals("-x")) {
+				String v = valor(args, ++i, "-x");
+				int sep = v.indexOf(':');
+				String formato = sep > 0 ? v.substring(0, sep) : "";
+				if ((!formato.equals(EXPORT_CSV) && !formato.equals(EXPORT_BIN)) || sep == v.length() - 1) {
+					throw new IllegalArgumentException("Valor inválido para -x: " + v + ". Usa csv:<ficheiro> ou bin:<ficheiro>");
+				}
+				opts.exportFormato = formato;
+				opts.exportFicheiro = v.substring(sep + 1);
+			} else if (args[i].equals("-c")) {
+				String v = valor(args, ++i, "-c");
+				int sep = v.indexOf(':');
+				try {
+					opts.checkpointIntervalo = sep > 0 ? Integer.parseInt(v.substring(0, sep)) : -1;
+				} catch (NumberFormatException e) {
+					opts.checkpointIntervalo = -1;
+				}
+				if (opts.checkpointIntervalo <= 0 || sep == v.length() - 1) {
+					throw new IllegalArgumentException("Valor inválido para -c: " + v + ". Usa <intervalo>:<ficheiro>");
+				}
+				opts.checkpointFicheiro = v.substring(sep + 1);
+			} else if (args[i].equals("-p")) {
+				String v = valor(args, ++i, "-p");
+				try {
+					opts.paralelismo = Integer.parseInt(v);
+				} catch (NumberFormatException e) {
+					opts.paralelismo = -1;
+				}
+				if (opts.paralelismo <= 0) {
+					throw new IllegalArgumentException("Valor inválido para -p: " + v + ". Usa um número inteiro positivo");
+				}
+			} else if (args[i].equals("-C")) {
+				opts.retomar = valor(args, ++i, "-C");
+			} else {
+				resto.add(args[i]);
+			}
+		}
+		if (opts.replicas > 0) {
+			// A batch run prints only the summary of its replicas, so it has no output,
+			// export or checkpoint of its own, and each replica runs the sequential loop
+			String conflito = opts.saida != null ? "-o"
+					: opts.exportFormato != null ? "-x"
+					: opts.checkpointFicheiro != null ? "-c"
+					: opts.retomar != null ? "-C"
+					: opts.paralelismo > 0 ? "-p" : null;
+			if (conflito != null) {
+				throw new IllegalArgumentException("A opção " + conflito + " não pode ser usada com -b.");
+			}
+		}
+		opts.args = resto.toArray(new String[0]);
+		return opts;
+	}
+
+	/**
+	 * Returns the value of an option, checking that it is present.
+	 *
+	 * @param args The command-line arguments.
+	 * @param i The index of the value.
+	 * @param opcao The name of the option, for the error message.
+	 * @return The value of the option.
+	 * @throws IllegalArgumentException If the value is missing.
+	 */
+	private static String valor(String[] args, int i, String opcao) {
+		if (i >= args.length) {
+			throw new IllegalArgumentException("A opção " + opcao + " requer um valor.");
+		}
+		return args[i];
+	}
+}
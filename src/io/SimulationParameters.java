@@ -165,15 +165,13 @@ public class SimulationParameters {
     /**
      * Constructs and returns a {@link Grid} object based on the grid dimensions,
      * obstacles, and special cost zones defined in these simulation parameters.
+     * The grid is immutable: its edge costs and valid moves are precomputed into
+     * read-only tables, so it answers those queries with a table lookup and can be shared
+     * by concurrent simulations.
      *
-     * @return A fully configured {@link Grid} instance ready for simulation.
+     * @return A fully configured, immutable {@link Grid} instance ready for simulation.
      */
     public Grid buildGrid() {
-        Grid g = new Grid(n, m);
-        // Add all obstacles to the grid
-        for (Coordenadas obs : obstacles) g.addObstacle(obs);
-        // Add all special cost zones to the grid
-        for (Special_Cost_Zone scz : costZones) g.addSpecialCostZone(scz);
-        return g;
+        return new Grid(n, m, obstacles, costZones);
     }
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+package io;
+
+import MODE.Coordenadas;
+import MODE.Grid;
+import MODE.Individual;
+import MODE.Special_Cost_Zone;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Formatter;
+import java.util.Locale;
+
+/**
+ * An {@link ObservationSink} that writes the simulation's text report, in the format the
+ * simulation has always printed, to a file or to the standard output.
+ * <p>
+ * The text is built in a reusable buffer and handed to the destination in large chunks,
+ * and path coordinates are appended digit by digit, so the cost of the output grows with
+ * its size rather than with the number of vertices printed. Numbers are formatted with
+ * the default locale and lines end with the platform line separator, exactly as
+ * {@link java.io.PrintStream#printf} and {@link java.io.PrintStream#println} do.
+ */
+public class TextObservationSink implements ObservationSink {
+	/**
+	 * The buffer size above which the buffer is handed to the destination.
+	 */
+	private static final int LIMITE = 1 << 16;
+	/**
+	 * The line separator of the platform.
+	 */
+	private static final String NL = System.lineSeparator();
+
+	/**
+	 * The destination of the text.
+	 */
+	private final Writer destino;
+	/**
+	 * The text not yet handed to the destination.
+	 */
+	private final StringBuilder buffer = new StringBuilder(LIMITE + 1024);
+	/**
+	 * Formats numbers into {@link #buffer} with the default locale.
+	 */
+	private final Formatter formatter = new Formatter(buffer, Locale.getDefault(Locale.Category.FORMAT));
+
+	/**
+	 * Constructs a sink that writes to an output stream, such as {@link System#out} or a
+	 * file, encoding the text with the platform's default charset.
+	 *
+	 * @param out The destination stream.
+	 */
+	public TextObservationSink(OutputStream out) {
+		this.destino = new OutputStreamWriter(out, Charset.defaultCharset());
+	}
+
+	@Override
+	public void inputParameters(SimulationParameters params) {
+		formatter.format("%d %d %d %d %d %d %d %d %d %d %d %d %d %d %d%n",
+				params.getN(), params.getM(),
+				params.getStartPoint().getX(), params.getStartPoint().getY(),
+				params.getEndPoint().getX(), params.getEndPoint().getY(),
+				params.getSpecialCostZones().size(), params.getObstacles().size(),
+				params.getTau(), params.getNu(), params.getNuMax(),
+				params.getK(), (int) params.getMu(), (int) params.getDelta(), (int) params.getRho());
+
+		if (!params.getSpecialCostZones().isEmpty()) {
+			buffer.append("special cost zones:").append(NL);
+			for (Special_Cost_Zone zone : params.getSpecialCostZones()) {
+				formatter.format("%d %d %d %d %d%n",
+						zone.getInf().getX(), zone.getInf().getY(),
+						zone.getSup().getX(), zone.getSup().getY(),
+						zone.getCusto());
+			}
+		}
+		if (!params.getObstacles().isEmpty()) {
+			buffer.append("obstacles:").append(NL);
+			for (Coordenadas c : params.getObstacles()) {
+				formatter.format("%d %d%n", c.getX(), c.getY());
+			}
+		}
+		buffer.append(NL).append(NL);
+		talvezDescarregar();
+	}
+
+	@Override
+	public void observation(int obsNum, int time, int events, int popSize,
+							boolean hit, Individual best, int cost, double comfort) {
+		buffer.append("Observation ").append(obsNum).append(':').append(NL);
+		buffer.append("Present time: ").append(time).append(NL);
+		buffer.append("Number of realized events: ").append(events).append(NL);
+		buffer.append("Population size: ").append(popSize).append(NL);
+		buffer.append("Final point has been hit: ").append(hit ? "yes" : "no").append(NL);
+		buffer.append("Path of the best fit individual: ");
+		if (best != null) {
+			caminho(best);
+			buffer.append(NL);
+			if (hit) {
+				buffer.append("Cost/Comfort: ").append(cost).append(NL);
+			} else {
+				buffer.append("Cost/Comfort: ");
+				formatter.format("%.6f", comfort);
+				buffer.append(NL);
+			}
+		} else {
+			buffer.append("[]").append(NL);
+			buffer.append("Cost/Comfort: 0").append(NL); // If no best individual, output 0 for cost/comfort
+		}
+		buffer.append(NL);
+		talvezDescarregar();
+	}
+
+	@Override
+	public void bestFit(Individual best, int cost) {
+		buffer.append("Best fit individual: ");
+		if (best != null) {
+			caminho(best);
+			buffer.append(" with cost ").append(cost).append(NL);
+		} else {
+			buffer.append("[] with cost 0").append(NL); // If no best individual found, output 0 cost
+		}
+		talvezDescarregar();
+	}
+
+	@Override
+	public void flush() {
+		try {
+			descarregar();
+			destino.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			descarregar();
+			destino.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Appends the path of an individual as {@code [(x, y), (x, y), ...]}, the format of
+	 * {@link Coordenadas#toString()}, handing the buffer over as it fills.
+	 *
+	 * @param ind The individual.
+	 */
+	private void caminho(Individual ind) {
+		Grid grid = ind.getGrid();
+		int[] cells = ind.getPathEnd().toCells();
+		buffer.append('[');
+		for (int i = 0; i < cells.length; i++) {
+			if (i > 0) buffer.append(", ");
+			buffer.append('(').append(grid.getCellX(cells[i]))
+					.append(", ").append(grid.getCellY(cells[i])).append(')');
+			if (buffer.length() > LIMITE) talvezDescarregar();
+		}
+		buffer.append(']');
+	}
+
+	/**
+	 * Hands the buffer to the destination if it has grown past {@link #LIMITE}.
+	 */
+	private void talvezDescarregar() {
+		if (buffer.length() > LIMITE) {
+			try {
+				descarregar();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Hands the whole buffer to the destination and empties it.
+	 *
+	 * @throws IOException If the destination cannot be written.
+	 */
+	private void descarregar() throws IOException {
+		if (buffer.length() > 0) {
+			destino.append(buffer);
+			buffer.setLength(0);
+		}
+	}
+}
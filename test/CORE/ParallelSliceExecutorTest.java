@@ -0,0 +1,63 @@
+package CORE;
+
+import MODE.Coordenadas;
+import MODE.Special_Cost_Zone;
+import UTIL.RandomUtil;
+import io.SimulationParameters;
+import io.TextObservationSink;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the parallel time-slice executor gives the same run for any number of threads.
+ * In the scenario deaths and reproductions are rare and the moves frequent, so every time
+ * slice holds a run of thousands of moves, well above {@link ParallelSliceExecutor#LIMIAR},
+ * which the pool splits across its threads. On a single-core machine the threads are still
+ * real, only interleaved instead of simultaneous.
+ */
+class ParallelSliceExecutorTest {
+	/**
+	 * The seed of every run.
+	 */
+	private static final long SEED = 2024;
+
+	/**
+	 * Runs a seeded scenario with the given parallelism and returns its text report.
+	 *
+	 * @param threads The number of threads of the parallel executor.
+	 * @return The report of the run.
+	 */
+	private static String executar(int threads) {
+		SimulationParameters params = new SimulationParameters(30, 30,
+				new Coordenadas(1, 1), new Coordenadas(30, 30),
+				List.of(new Special_Cost_Zone(new Coordenadas(5, 5), new Coordenadas(20, 20), 4)),
+				List.of(new Coordenadas(2, 2), new Coordenadas(10, 3), new Coordenadas(15, 15)),
+				40, 20000, 30000, 3, 100000, 1, 100000);
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		Simulation sim = Simulation.setup(params, params.buildGrid(), new PEC(new CalendarEventQueue()),
+				new RandomUtil(SEED));
+		sim.setParallelism(threads);
+		try (TextObservationSink sink = new TextObservationSink(saida)) {
+			sim.setObservationSink(sink);
+			sim.run();
+		}
+		return saida.toString(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void sameRunForAnyNumberOfThreads() {
+		String umaThread = executar(1);
+		assertTrue(umaThread.contains("Observation 20"), umaThread);
+		int processadores = Runtime.getRuntime().availableProcessors();
+		for (int threads : new int[] {2, Math.max(4, processadores)}) {
+			assertEquals(umaThread, executar(threads), "Run with " + threads + " threads");
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package MODE;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a child holds no state proportional to the path it inherits: right after it
+ * is born it retains only itself, and once it moves it retains only what its new suffix
+ * needs, whatever the length of the inherited prefix.
+ * <p>
+ * The retained size of an individual is estimated by walking the objects reachable from it
+ * and not from the individuals it is compared with, and adding their shallow sizes with
+ * compressed references. The {@link Grid} is shared by every individual and not walked.
+ */
+class IndividualMemoryTest {
+	/** The number of rows and columns of the grid. */
+	private static final int N = 200;
+	/** The number of moves of each child. */
+	private static final int PASSOS = 64;
+	/** The largest retained size allowed for each move of a child, in bytes. */
+	private static final long POR_PASSO = 96;
+	/** The retained size allowed for a child besides its moves, in bytes. */
+	private static final long BASE = 128;
+
+	/** The grid, with no obstacles and no special cost zones. */
+	private static Grid grid;
+
+	@BeforeAll
+	static void construir() {
+		grid = new Grid(N, N);
+	}
+
+	/**
+	 * Returns the cell of the given step of a walk that covers the grid row by row, in
+	 * alternate directions, so that the walk never visits a cell twice.
+	 *
+	 * @param passo The step, from 0.
+	 * @return The cell id of the step.
+	 */
+	private static int serpente(int passo) {
+		int x = passo / N + 1;
+		int y = (x % 2 == 1) ? passo % N + 1 : N - passo % N;
+		return grid.getCellId(x, y);
+	}
+
+	/**
+	 * Returns an individual that walked the given number of steps of the snake.
+	 *
+	 * @param passos The number of steps.
+	 * @return The individual.
+	 */
+	private static Individual andar(int passos) {
+		Individual ind = new Individual(grid.toCoordenadas(serpente(0)), 0, 0, grid);
+		for (int i = 1; i <= passos; i++) ind.moveTo(serpente(i));
+		return ind;
+	}
+
+	/**
+	 * Moves an individual along the snake, from the step it is at.
+	 *
+	 * @param ind The individual.
+	 * @param passos The number of steps.
+	 */
+	private static void continuar(Individual ind, int passos) {
+		int inicio = ind.getLength();
+		for (int i = 1; i <= passos; i++) ind.moveTo(serpente(inicio + i));
+		assertEquals(inicio + passos, ind.getLength(), "the snake never closes a cycle");
+	}
+
+	@Test
+	void newbornRetainsOnlyItself() {
+		for (int comprimento : new int[] {500, 5000}) {
+			Individual pai = andar(comprimento);
+			Individual filho = pai.reproduz(0.5);
+			long retido = retido(filho, pai);
+			assertTrue(retido <= BASE, "a newborn child of a path of " + comprimento + " retains " + retido + " bytes");
+		}
+	}
+
+	@Test
+	void movingChildRetainsOnlyItsSuffix() {
+		long curto = retidoAposMover(500);
+		long longo = retidoAposMover(20000);
+		long limite = BASE + PASSOS * POR_PASSO;
+		assertTrue(curto <= limite, "child of a path of 500 retains " + curto + " bytes");
+		assertTrue(longo <= limite, "child of a path of 20000 retains " + longo + " bytes");
+	}
+
+	@Test
+	void reproductionHeavyLineageGrowsWithTheSuffixesOnly() {
+		// Each generation is born from the previous one after it moved, as in a run with a
+		// small mean time between reproductions; the first parent's path is the long prefix
+		// every descendant inherits
+		Individual fundador = andar(20000);
+		Individual atual = fundador;
+		Object[] linhagem = new Object[50];
+		for (int g = 0; g < linhagem.length; g++) {
+			atual = atual.reproduz(0.5);
+			continuar(atual, PASSOS);
+			linhagem[g] = atual;
+		}
+		long retido = retido(linhagem, fundador);
+		long limite = linhagem.length * (BASE + PASSOS * POR_PASSO);
+		assertTrue(retido <= limite, linhagem.length + " generations retain " + retido + " bytes");
+	}
+
+	/**
+	 * Returns the estimated retained size of a child that moved {@link #PASSOS} steps,
+	 * compared with its parent.
+	 *
+	 * @param comprimento The length of the parent's path.
+	 * @return The retained size, in bytes.
+	 */
+	private static long retidoAposMover(int comprimento) {
+		Individual pai = andar(comprimento);
+		Individual filho = pai.reproduz(0.5);
+		continuar(filho, PASSOS);
+		return retido(filho, pai);
+	}
+
+	/**
+	 * Estimates the size of the objects reachable from one root and not from another.
+	 *
+	 * @param raiz The root whose objects are counted.
+	 * @param partilhado The root whose objects are shared and not counted.
+	 * @return The sum of the shallow sizes of the objects, in bytes.
+	 */
+	private static long retido(Object raiz, Object partilhado) {
+		Set<Object> excluidos = alcancaveis(partilhado, Collections.newSetFromMap(new IdentityHashMap<>()));
+		long total = 0;
+		for (Object o : alcancaveis(raiz, excluidos)) total += tamanho(o);
+		return total;
+	}
+
+	/**
+	 * Collects the objects reachable from a root, without walking into the grid or into
+	 * the given objects.
+	 *
+	 * @param raiz The root.
+	 * @param excluidos The objects not to collect.
+	 * @return The reachable objects.
+	 */
+	private static Set<Object> alcancaveis(Object raiz, Set<Object> excluidos) {
+		Set<Object> vistos = Collections.newSetFromMap(new IdentityHashMap<>());
+		ArrayDeque<Object> pendentes = new ArrayDeque<>();
+		pendentes.push(raiz);
+		while (!pendentes.isEmpty()) {
+			Object o = pendentes.pop();
+			if (o instanceof Grid || excluidos.contains(o) || !vistos.add(o)) continue;
+			Class<?> c = o.getClass();
+			if (c.isArray()) {
+				if (!c.getComponentType().isPrimitive()) {
+					for (int i = 0; i < Array.getLength(o); i++) {
+						Object e = Array.get(o, i);
+						if (e != null) pendentes.push(e);
+					}
+				}
+				continue;
+			}
+			for (; c != null; c = c.getSuperclass()) {
+				for (Field f : c.getDeclaredFields()) {
+					if (Modifier.isStatic(f.getModifiers()) || f.getType().isPrimitive()) continue;
+					f.setAccessible(true);
+					try {
+						Object e = f.get(o);
+						if (e != null) pendentes.push(e);
+					} catch (IllegalAccessException e) {
+						throw new AssertionError(e);
+					}
+				}
+			}
+		}
+		return vistos;
+	}
+
+	/**
+	 * Estimates the shallow size of an object with compressed references: a 12-byte header
+	 * and 4 bytes per reference, {@code int} or {@code float}, 16 bytes for an array header,
+	 * rounded up to a multiple of 8.
+	 *
+	 * @param o The object.
+	 * @return Its estimated size, in bytes.
+	 */
+	private static long tamanho(Object o) {
+		Class<?> c = o.getClass();
+		long bytes;
+		if (c.isArray()) {
+			Class<?> t = c.getComponentType();
+			int elemento = t == long.class || t == double.class ? 8
+					: t == byte.class || t == boolean.class ? 1
+					: t == short.class || t == char.class ? 2 : 4;
+			bytes = 16 + (long) elemento * Array.getLength(o);
+		} else {
+			bytes = 12;
+			for (; c != null; c = c.getSuperclass()) {
+				for (Field f : c.getDeclaredFields()) {
+					if (Modifier.isStatic(f.getModifiers())) continue;
+					Class<?> t = f.getType();
+					bytes += t == long.class || t == double.class ? 8
+							: t == byte.class || t == boolean.class ? 1
+							: t == short.class || t == char.class ? 2 : 4;
+				}
+			}
+		}
+		return (bytes + 7) & ~7L;
+	}
+}